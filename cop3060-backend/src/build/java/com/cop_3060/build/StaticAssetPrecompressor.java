@@ -0,0 +1,126 @@
+package com.cop_3060.build;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Build step (compiled and run by maven-antrun in process-classes, never packaged): writes
+ * {@code .gz} siblings, and {@code .br} ones when a {@code brotli} executable is on the PATH,
+ * next to every compressible file of the bundled React build, so StaticResourceConfig can serve
+ * them without compressing on each request. Files that do not shrink are skipped, and
+ * up-to-date siblings are left alone.
+ *
+ * Usage: StaticAssetPrecompressor &lt;static dir&gt;
+ */
+public final class StaticAssetPrecompressor {
+
+    private static final Set<String> COMPRESSIBLE = Set.of("js", "css", "html", "json", "map", "svg", "txt", "ico");
+    private static final long MIN_SIZE = 1024;
+
+    private StaticAssetPrecompressor() {}
+
+    public static void main(String[] args) throws IOException {
+        Path root = Path.of(args.length > 0 ? args[0] : "target/classes/static");
+        if (!Files.isDirectory(root)) {
+            System.out.println("precompress: no static directory at " + root);
+            return;
+        }
+        boolean brotli = brotliAvailable();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile).filter(StaticAssetPrecompressor::compressible).toList();
+        }
+        int written = 0;
+        for (Path file : files) {
+            if (gzip(file)) written++;
+            if (brotli && brotli(file)) written++;
+        }
+        System.out.printf("precompress: %d files checked, %d variants written%s%n",
+                files.size(), written, brotli ? "" : " (no brotli on PATH, .gz only)");
+    }
+
+    private static boolean compressible(Path file) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        try {
+            return dot > 0 && COMPRESSIBLE.contains(name.substring(dot + 1)) && Files.size(file) >= MIN_SIZE;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean gzip(Path file) throws IOException {
+        Path target = sibling(file, ".gz");
+        if (upToDate(file, target)) return false;
+        Path tmp = sibling(file, ".gz.tmp");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp)) {
+            { def.setLevel(Deflater.BEST_COMPRESSION); }
+        }) {
+            Files.copy(file, out);
+        }
+        return keepIfSmaller(file, tmp, target);
+    }
+
+    private static boolean brotli(Path file) throws IOException {
+        Path target = sibling(file, ".br");
+        if (upToDate(file, target)) return false;
+        Path tmp = sibling(file, ".br.tmp");
+        try {
+            Process p = new ProcessBuilder("brotli", "-f", "-q", "11", "-o", tmp.toString(), file.toString())
+                    .redirectErrorStream(true).start();
+            if (!p.waitFor(60, TimeUnit.SECONDS) || p.exitValue() != 0) {
+                p.destroyForcibly();
+                Files.deleteIfExists(tmp);
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Files.deleteIfExists(tmp);
+            return false;
+        }
+        return keepIfSmaller(file, tmp, target);
+    }
+
+    private static boolean keepIfSmaller(Path file, Path tmp, Path target) throws IOException {
+        if (Files.size(tmp) >= Files.size(file)) {
+            Files.delete(tmp);
+            Files.deleteIfExists(target);
+            return false;
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    private static boolean upToDate(Path file, Path target) throws IOException {
+        if (!Files.exists(target)) return false;
+        FileTime source = Files.getLastModifiedTime(file);
+        return Files.getLastModifiedTime(target).compareTo(source) >= 0;
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            Process p = new ProcessBuilder("brotli", "--version").redirectErrorStream(true).start();
+            p.getInputStream().readAllBytes();
+            return p.waitFor(10, TimeUnit.SECONDS) && p.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
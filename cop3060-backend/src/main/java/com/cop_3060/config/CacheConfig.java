@@ -0,0 +1,37 @@
+package com.cop_3060.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * In-process read-through cache for entities looked up by id.
+ * Caffeine bounds each cache by size (W-TinyLFU eviction) and age, and records
+ * hit/miss/eviction statistics that Actuator publishes as cache.* metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String RESOURCES = "resources";
+    public static final String CATEGORIES = "categories";
+    public static final String LOCATIONS = "locations";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${app.cache.max-size:10000}") long maxSize,
+                                     @Value("${app.cache.ttl-minutes:10}") long ttlMinutes) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(RESOURCES, CATEGORIES, LOCATIONS);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+}
@@ -0,0 +1,95 @@
+package com.cop_3060.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps how many /api requests are processed at once.
+ *
+ * On platform threads Tomcat's pool (200 threads) already did this; with virtual threads
+ * every connection gets its own thread, so without a cap a burst would all queue on the
+ * Hikari pool (and MySQL) at once. Requests over the cap get a 503 with Retry-After right
+ * away (or after the queue timeout, if one is set), before any security or database work is
+ * done, so a full server never parks request threads on the filter itself.
+ *
+ * A slot covers the request thread only. An async request (CompletableFuture or
+ * StreamingResponseBody handlers) gives it back as soon as the handler returns: an hour-long
+ * export or a slow weather call must not starve CRUD of slots. Its async work is bounded by
+ * the executor it runs on instead (DatabaseExecutor, the HTTP client's per-host slots, the
+ * MVC task executor), and async re-dispatches are not filtered again.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore slots;
+    private final int maxInFlight;
+    private final long queueTimeoutMillis;
+
+    public ConcurrencyLimitFilter(@Value("${app.concurrency.max-in-flight:200}") int maxInFlight,
+                                  @Value("${app.concurrency.queue-timeout:0ms}") Duration queueTimeout) {
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.slots = new Semaphore(this.maxInFlight);
+        this.queueTimeoutMillis = queueTimeout.toMillis();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            reject(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            slots.release();
+        }
+    }
+
+    private boolean acquire() {
+        if (queueTimeoutMillis <= 0) {
+            return slots.tryAcquire();
+        }
+        try {
+            return slots.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** Requests being processed right now. */
+    public int inFlight() {
+        return maxInFlight - slots.availablePermits();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        // Same shape as GlobalExceptionHandler's error bodies
+        response.getWriter().write("{\"timestamp\":\"" + Instant.now() + "\",\"status\":503,"
+                + "\"error\":\"Service Unavailable\",\"message\":\"Server is at capacity, retry shortly\","
+                + "\"path\":\"" + request.getRequestURI().replace("\\", "\\\\").replace("\"", "\\\"") + "\"}");
+    }
+}
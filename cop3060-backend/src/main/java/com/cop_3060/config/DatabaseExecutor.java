@@ -0,0 +1,87 @@
+package com.cop_3060.config;
+
+import com.cop_3060.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool for the blocking repository calls of async pipelines.
+ *
+ * The HTTP client's io-threads hand freed upstream slots to waiting calls, and the
+ * auth-hash threads are the only ones doing BCrypt. A thread from either pool stuck in a
+ * slow query (Hikari waits up to its connection timeout) would stall that pool, so their
+ * callbacks move database work here instead. Keep the pool smaller than the Hikari pool.
+ * When the queue is full, work is refused with {@link ServiceBusyException} (503) instead
+ * of queueing without bound.
+ *
+ * Metrics: {@code db.executor.queue.depth} and {@code db.executor.rejected}.
+ */
+@Component
+public class DatabaseExecutor implements Executor {
+
+    private final ThreadPoolExecutor pool;
+    private final Counter rejected;
+
+    public DatabaseExecutor(MeterRegistry meterRegistry,
+                            @Value("${app.db.executor.threads:4}") int threads,
+                            @Value("${app.db.executor.queue-capacity:256}") int queueCapacity) {
+        int size = Math.max(1, threads);
+        AtomicInteger counter = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "db-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("db.executor.queue.depth", pool, p -> p.getQueue().size())
+                .description("Repository tasks from async pipelines waiting for a worker")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("db.executor.rejected")
+                .description("Repository tasks refused because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run {@code task} on the pool; throws {@link ServiceBusyException} when the queue is full,
+     * which fails the dependent stage when used with {@code thenApplyAsync} and the like.
+     */
+    @Override
+    public void execute(Runnable task) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many database tasks queued, please retry shortly", e);
+        }
+    }
+
+    /** Like {@code CompletableFuture.supplyAsync(task, this)}, but a full queue fails the future. */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, this);
+        } catch (ServiceBusyException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,38 @@
+package com.cop_3060.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings for outbound calls to third-party APIs (external.http.*).
+ * Defaults apply to every host; entries under external.http.hosts.&lt;host&gt; override them, e.g.
+ * external.http.hosts[api.open-meteo.com].read-timeout=3s
+ */
+@ConfigurationProperties("external.http")
+public record ExternalHttpProperties(
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("5s") Duration readTimeout,
+        @DefaultValue("16") int maxConcurrentPerHost,
+        @DefaultValue("250ms") Duration acquireTimeout,
+        @DefaultValue("8") int ioThreads,
+        Map<String, Host> hosts
+) {
+
+    /**
+     * Per-host overrides; null fields fall back to the defaults above.
+     */
+    public record Host(Duration readTimeout, Integer maxConcurrent) {}
+
+    public Duration readTimeoutFor(String host) {
+        Host h = hosts == null ? null : hosts.get(host);
+        return h != null && h.readTimeout() != null ? h.readTimeout() : readTimeout;
+    }
+
+    public int maxConcurrentFor(String host) {
+        Host h = hosts == null ? null : hosts.get(host);
+        return h != null && h.maxConcurrent() != null ? h.maxConcurrent() : maxConcurrentPerHost;
+    }
+}
@@ -0,0 +1,79 @@
+package com.cop_3060.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the beans in {@code com.cop_3060.service} as
+ * {@code app.service.calls}, and of the hand-written ones in {@code com.cop_3060.repository}
+ * as {@code app.repository.calls}, tagged with class, method and exception ("none" on success).
+ * Spring Data repository interfaces are timed by Boot itself ({@code spring.data.repository.invocations})
+ * and controllers by {@code http.server.requests}.
+ *
+ * A method returning a CompletionStage is timed until the stage completes; the caller still
+ * gets the original stage.
+ */
+@Aspect
+@Component
+public class MetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    private record TimerKey(String name, Class<?> type, String method, String exception) {}
+
+    public MetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(com.cop_3060.service..*) && execution(public * *(..)) "
+            + "&& !execution(* io.micrometer.core.instrument.binder.MeterBinder.bindTo(..))")
+    public Object timeService(ProceedingJoinPoint call) throws Throwable {
+        return time("app.service.calls", call);
+    }
+
+    @Around("within(com.cop_3060.repository..*) && execution(public * *(..))")
+    public Object timeRepository(ProceedingJoinPoint call) throws Throwable {
+        return time("app.repository.calls", call);
+    }
+
+    private Object time(String name, ProceedingJoinPoint call) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = call.proceed();
+        } catch (Throwable t) {
+            record(name, call, start, t);
+            throw t;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, ex) -> record(name, call, start, ex));
+        } else {
+            record(name, call, start, null);
+        }
+        return result;
+    }
+
+    private void record(String name, ProceedingJoinPoint call, long start, Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        TimerKey key = new TimerKey(name, call.getSignature().getDeclaringType(), call.getSignature().getName(),
+                cause == null ? "none" : cause.getClass().getSimpleName());
+        timers.computeIfAbsent(key, k -> Timer.builder(k.name())
+                        .description("Time spent in application " + (k.name().contains("service") ? "services" : "repositories"))
+                        .tag("class", k.type().getSimpleName())
+                        .tag("method", k.method())
+                        .tag("exception", k.exception())
+                        .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+}
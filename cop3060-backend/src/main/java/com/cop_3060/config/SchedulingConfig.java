@@ -0,0 +1,12 @@
+package com.cop_3060.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (e.g. external_data retention).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,20 +1,30 @@
 package com.cop_3060.config;
 
 import com.cop_3060.security.JwtAuthenticationFilter;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.WebSecurityCustomizer;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 @Configuration
 @EnableMethodSecurity
@@ -26,12 +36,61 @@ public class SecurityConfig {
         this.jwtAuthFilter = jwtAuthFilter;
     }
 
+    /**
+     * Anonymous reads: GET/HEAD under /api with no Authorization header. Every GET endpoint is
+     * public, and with no credentials there is nothing for the JWT or Basic filters to do.
+     * A read that does carry a token still goes through the full chain.
+     */
+    static final RequestMatcher PUBLIC_READ = request ->
+            ("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))
+                    && request.getHeader(HttpHeaders.AUTHORIZATION) == null
+                    && request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+
+    /**
+     * The bundled React build is public and never needs a security context, so skip the
+     * filter chain for it entirely.
+     */
+    @Bean
+    public WebSecurityCustomizer staticResources() {
+        return web -> web.ignoring().requestMatchers(
+                antMatcher(HttpMethod.GET, "/"),
+                antMatcher(HttpMethod.GET, "/index.html"),
+                antMatcher(HttpMethod.GET, "/static/**"),
+                antMatcher(HttpMethod.GET, "/favicon.ico"),
+                antMatcher(HttpMethod.GET, "/logo*.png"),
+                antMatcher(HttpMethod.GET, "/manifest.json"),
+                antMatcher(HttpMethod.GET, "/asset-manifest.json"),
+                antMatcher(HttpMethod.GET, "/robots.txt"));
+    }
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain publicReadChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher(PUBLIC_READ)
+                .csrf(AbstractHttpConfigurer::disable)
+                .logout(AbstractHttpConfigurer::disable)
+                .requestCache(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll());
+
+        return http.build();
+    }
+
+    /**
+     * Actuator endpoints other than health (metrics, caches with its DELETE, the Prometheus
+     * scrape) need a signed-in caller; a scraper sends a bearer token like any API client.
+     */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to(HealthEndpoint.class)).permitAll()
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).authenticated()
+                        .requestMatchers("/actuator/**").authenticated() // endpoints that are not exposed too
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/**").permitAll() // allow GETs; we'll protect mutating endpoints with method-level checks
                         .anyRequest().permitAll()
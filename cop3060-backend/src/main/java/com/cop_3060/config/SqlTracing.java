@@ -0,0 +1,209 @@
+package com.cop_3060.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts and times the JDBC statements issued while an HTTP request is being served.
+ *
+ * {@link SqlTracingDataSource} reports every executed statement here; {@link SqlTracingFilter}
+ * opens and closes the per-request tally. Statements slower than the slow threshold are logged
+ * with the request that issued them, and a request issuing more statements than the budget is
+ * logged as a likely N+1.
+ *
+ * Statements are attributed to the request on the request thread and on the application task
+ * executor, which runs StreamingResponseBody and Callable handlers (see {@link #propagate}); such
+ * requests are recorded when their async work ends. Requests completed by CompletableFuture
+ * chains on other pools (weather, login, register) are left out of the per-request metrics,
+ * since part of their SQL runs where the tally cannot follow; their statements still show up in
+ * {@code jdbc.statements}, as do those of schedulers and other background work.
+ *
+ * Metrics: {@code jdbc.statements} (tag type: select|insert|update|delete|other),
+ * {@code jdbc.statements.slow}, and per request URI pattern {@code http.request.sql.statements},
+ * {@code http.request.sql.time} and {@code http.request.sql.over.budget}.
+ */
+@Component
+public class SqlTracing {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlTracing.class);
+    private static final int MAX_LOGGED_SQL = 500;
+
+    private static final ThreadLocal<RequestSql> current = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final long slowThresholdNanos;
+    private final int statementBudget;
+    private final Timer selects;
+    private final Timer inserts;
+    private final Timer updates;
+    private final Timer deletes;
+    private final Timer others;
+    private final Counter slow;
+    private final Map<String, UriMeters> byUri = new ConcurrentHashMap<>();
+
+    public SqlTracing(MeterRegistry meterRegistry,
+                      @Value("${app.sql.slow-threshold:200ms}") Duration slowThreshold,
+                      @Value("${app.sql.statement-budget:20}") int statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.statementBudget = statementBudget;
+        this.selects = statementTimer("select");
+        this.inserts = statementTimer("insert");
+        this.updates = statementTimer("update");
+        this.deletes = statementTimer("delete");
+        this.others = statementTimer("other");
+        this.slow = Counter.builder("jdbc.statements.slow")
+                .description("JDBC statements slower than app.sql.slow-threshold")
+                .register(meterRegistry);
+    }
+
+    /** Statements and JDBC time of one request so far; may be added to from an async thread. */
+    public static final class RequestSql {
+        private final String request;
+        private final RequestSql outer;
+        private final AtomicInteger statements = new AtomicInteger();
+        private final AtomicLong nanos = new AtomicLong();
+        private volatile boolean propagated;
+
+        private RequestSql(String request, RequestSql outer) {
+            this.request = request;
+            this.outer = outer;
+        }
+
+        public int statements() {
+            return statements.get();
+        }
+
+        public Duration jdbcTime() {
+            return Duration.ofNanos(nanos.get());
+        }
+
+        /** Whether async work of this request ran through {@link #propagate}. */
+        public boolean propagated() {
+            return propagated;
+        }
+    }
+
+    private record UriMeters(DistributionSummary statements, Timer time, Counter overBudget) {}
+
+    /** Start attributing this thread's statements to {@code request} (e.g. "GET /api/resources"). */
+    public RequestSql begin(String request) {
+        RequestSql sql = new RequestSql(request, current.get());
+        current.set(sql);
+        return sql;
+    }
+
+    /** Stop attributing this thread's statements to {@code sql}. */
+    public void detach(RequestSql sql) {
+        if (sql.outer == null) current.remove();
+        else current.set(sql.outer);
+    }
+
+    /**
+     * Record a finished request under the URI pattern {@code uri}; warns when it went over
+     * the statement budget.
+     */
+    public void complete(RequestSql sql, String uri) {
+        UriMeters meters = byUri.computeIfAbsent(uri, this::uriMeters);
+        int statements = sql.statements();
+        long nanos = sql.nanos.get();
+        meters.statements().record(statements);
+        meters.time().record(nanos, TimeUnit.NANOSECONDS);
+        if (statements > statementBudget) {
+            meters.overBudget().increment();
+            log.warn("Possible N+1: {} issued {} SQL statements (budget {}) taking {} ms",
+                    sql.request, statements, statementBudget, TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    /**
+     * Wrap {@code task} so that it runs with the calling thread's request tally, if any.
+     * Used as the application task executor's decorator.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestSql sql = current.get();
+        if (sql == null) return task;
+        return () -> {
+            RequestSql previous = current.get();
+            current.set(sql);
+            sql.propagated = true;
+            try {
+                task.run();
+            } finally {
+                if (previous == null) current.remove();
+                else current.set(previous);
+            }
+        };
+    }
+
+    /** Called by {@link SqlTracingDataSource} after each executed statement (or batch). */
+    void record(String statement, long nanos) {
+        timerFor(statement).record(nanos, TimeUnit.NANOSECONDS);
+        RequestSql sql = current.get();
+        if (sql != null) {
+            sql.statements.incrementAndGet();
+            sql.nanos.addAndGet(nanos);
+        }
+        if (nanos >= slowThresholdNanos) {
+            slow.increment();
+            log.warn("Slow SQL ({} ms) during {}: {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                    sql == null ? "background work" : sql.request, abbreviate(statement));
+        }
+    }
+
+    private UriMeters uriMeters(String uri) {
+        return new UriMeters(
+                DistributionSummary.builder("http.request.sql.statements")
+                        .description("JDBC statements issued per HTTP request")
+                        .tag("uri", uri)
+                        .register(meterRegistry),
+                Timer.builder("http.request.sql.time")
+                        .description("Time spent in JDBC per HTTP request")
+                        .tag("uri", uri)
+                        .register(meterRegistry),
+                Counter.builder("http.request.sql.over.budget")
+                        .description("HTTP requests that issued more statements than app.sql.statement-budget")
+                        .tag("uri", uri)
+                        .register(meterRegistry));
+    }
+
+    private Timer statementTimer(String type) {
+        return Timer.builder("jdbc.statements")
+                .description("Executed JDBC statements and batches")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private Timer timerFor(String statement) {
+        if (statement == null) return others;
+        String sql = statement.stripLeading();
+        String verb = sql.substring(0, Math.min(6, sql.length())).toLowerCase(Locale.ROOT);
+        return switch (verb) {
+            case "select" -> selects;
+            case "insert" -> inserts;
+            case "update" -> updates;
+            case "delete" -> deletes;
+            default -> others;
+        };
+    }
+
+    private static String abbreviate(String statement) {
+        if (statement == null) return "(batch)";
+        String oneLine = statement.replaceAll("\\s+", " ").trim();
+        return oneLine.length() <= MAX_LOGGED_SQL ? oneLine : oneLine.substring(0, MAX_LOGGED_SQL) + "...";
+    }
+}
@@ -0,0 +1,58 @@
+package com.cop_3060.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application's DataSource in a {@link SqlTracingDataSource}, so every statement
+ * is counted and timed per request by {@link SqlTracing}, and carries a request's tally onto
+ * the application task executor that runs its StreamingResponseBody and Callable handlers.
+ *
+ * Boot backs off its own applicationTaskExecutor because {@link DatabaseExecutor} is an
+ * Executor bean; Spring MVC would then fall back to an undecorated thread-per-task executor.
+ * The executor is declared here instead, from Boot's builders so spring.task.execution.*
+ * and spring.threads.virtual.enabled still apply.
+ */
+@Configuration
+public class SqlTracingConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlTracingDataSourcePostProcessor(ObjectProvider<SqlTracing> tracing) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof SqlTracingDataSource)
+                        ? new SqlTracingDataSource(dataSource, tracing)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public TaskDecorator sqlTracingTaskDecorator() {
+        return SqlTracing::propagate;
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public AsyncTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.taskDecorator(sqlTracingTaskDecorator()).build();
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public AsyncTaskExecutor applicationTaskExecutorVirtualThreads(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.taskDecorator(sqlTracingTaskDecorator()).build();
+    }
+}
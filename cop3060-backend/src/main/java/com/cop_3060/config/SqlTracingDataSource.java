@@ -0,0 +1,116 @@
+package com.cop_3060.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * DataSource wrapper that times every statement executed through its connections and reports
+ * it to {@link SqlTracing}. Covers Hibernate and JdbcTemplate alike, and replaces logging
+ * every statement and bind value. {@code unwrap} still reaches the pool (e.g. for Hikari metrics).
+ */
+public class SqlTracingDataSource extends DelegatingDataSource {
+
+    private final ObjectProvider<SqlTracing> tracingProvider;
+    private volatile SqlTracing tracing;
+
+    public SqlTracingDataSource(DataSource target, ObjectProvider<SqlTracing> tracingProvider) {
+        super(target);
+        this.tracingProvider = tracingProvider;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return traced(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return traced(super.getConnection(username, password));
+    }
+
+    private Connection traced(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    /** Resolved on first use: the DataSource is created before the meter registry is ready. */
+    private SqlTracing tracing() {
+        SqlTracing t = tracing;
+        if (t == null) {
+            t = tracingProvider.getIfAvailable();
+            tracing = t;
+        }
+        return t;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTracingDataSource.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                // prepareStatement/prepareCall carry the SQL up front; createStatement passes it to execute
+                String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+                Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                        : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{type}, new StatementHandler(statement, sql, proxy));
+            }
+            return result;
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final String preparedSql;
+        private final Object connection;
+
+        StatementHandler(Statement target, String preparedSql, Object connection) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("getConnection")) {
+                return connection;
+            }
+            SqlTracing t = method.getName().startsWith("execute") ? tracing() : null;
+            if (t == null) {
+                return SqlTracingDataSource.invoke(target, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return SqlTracingDataSource.invoke(target, method, args);
+            } finally {
+                t.record(sql, System.nanoTime() - start);
+            }
+        }
+    }
+}
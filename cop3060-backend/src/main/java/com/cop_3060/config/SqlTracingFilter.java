@@ -0,0 +1,96 @@
+package com.cop_3060.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Opens a {@link SqlTracing} tally for each /api request and records it under the matched
+ * URI pattern (e.g. /api/resources/{id}), so metrics stay one series per endpoint.
+ * An async request is recorded when its async work ends, and only if that work ran on the
+ * application task executor; see {@link SqlTracing}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class SqlTracingFilter extends OncePerRequestFilter {
+
+    private final SqlTracing tracing;
+
+    public SqlTracingFilter(SqlTracing tracing) {
+        this.tracing = tracing;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlTracing.RequestSql sql = tracing.begin(request.getMethod() + " " + request.getRequestURI());
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            tracing.detach(sql);
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            if (async) {
+                request.getAsyncContext().addListener(new CompleteOnAsyncEnd(sql, uri));
+            } else {
+                tracing.complete(sql, uri);
+            }
+        }
+    }
+
+    /** Records the tally once, whichever way the async request ends. */
+    private final class CompleteOnAsyncEnd implements AsyncListener {
+        private final SqlTracing.RequestSql sql;
+        private final String uri;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        CompleteOnAsyncEnd(SqlTracing.RequestSql sql, String uri) {
+            this.sql = sql;
+            this.uri = uri;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            complete();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void complete() {
+            if (sql.propagated() && done.compareAndSet(false, true)) {
+                tracing.complete(sql, uri);
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.cop_3060.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serving of the bundled React build.
+ *
+ * Files under /static/** carry a content hash in their name (main.c17ac5a9.js), so a new
+ * build means a new URL: they are cached for a year as immutable and never revalidated.
+ * index.html and the other root files keep fixed names, so browsers must revalidate them
+ * (no-cache) and get a 304 via ETag when nothing changed.
+ *
+ * Both prefer the .br/.gz siblings written at build time by StaticAssetPrecompressor (src/build/java)
+ * when the client accepts them (Content-Encoding and Vary: Accept-Encoding are set).
+ */
+@Configuration
+public class StaticResourceConfig implements WebMvcConfigurer {
+
+    /** Content-based ETags per resource; classpath resources do not change while running. */
+    private final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/static/**")
+                .addResourceLocations("classpath:/static/static/")
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .setUseLastModified(false)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+
+        registry.addResourceHandler("/index.html", "/manifest.json", "/asset-manifest.json",
+                        "/robots.txt", "/favicon.ico", "/logo*.png")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache().cachePublic())
+                .setEtagGenerator(this::etag)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new PathResourceResolver());
+    }
+
+    private String etag(Resource resource) {
+        try {
+            return etags.computeIfAbsent(resource.getURL().toString(), url -> {
+                try (InputStream in = resource.getInputStream()) {
+                    return DigestUtils.md5DigestAsHex(in);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | UncheckedIOException e) {
+            return null;
+        }
+    }
+}
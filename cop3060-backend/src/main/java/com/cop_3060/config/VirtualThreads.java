@@ -0,0 +1,35 @@
+package com.cop_3060.config;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Java 21 virtual threads, looked up reflectively so the backend still builds and runs on 17.
+ * Request threads and the application task executor switch through Spring Boot's own
+ * spring.threads.virtual.enabled; this covers executors we create ourselves.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * A new virtual thread per task, threads named {@code prefix0, prefix1, ...};
+     * empty when the running JVM has no virtual threads.
+     */
+    public static Optional<ExecutorService> newPerTaskExecutor(String prefix) {
+        try {
+            // Resolve through the public Thread.Builder interface; the builder class itself is internal
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            ThreadFactory threads = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+            Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return Optional.of((ExecutorService) perTask.invoke(null, threads));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
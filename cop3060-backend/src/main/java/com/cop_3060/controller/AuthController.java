@@ -1,55 +1,92 @@
 package com.cop_3060.controller;
 
+import com.cop_3060.config.DatabaseExecutor;
 import com.cop_3060.entity.UserAccount;
 import com.cop_3060.repository.UserRepository;
 import com.cop_3060.security.JwtUtil;
+import com.cop_3060.security.LoginThrottle;
+import com.cop_3060.security.PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 import java.net.URI;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
+/**
+ * Register and login. Both hash passwords on {@link PasswordHasher}'s pool and return a
+ * future, so the request thread is released while BCrypt runs. The new account is saved on
+ * the {@link DatabaseExecutor}, so a slow insert never holds a hashing thread.
+ */
 @RestController
 @RequestMapping("/api/auth")
 public class AuthController {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
     private final JwtUtil jwtUtil;
+    private final DatabaseExecutor db;
+    private final Counter badCredentials;
 
-    public AuthController(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtUtil jwtUtil) {
+    public AuthController(UserRepository userRepository, PasswordHasher passwordHasher,
+                          LoginThrottle loginThrottle, JwtUtil jwtUtil, DatabaseExecutor db,
+                          MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
+        this.loginThrottle = loginThrottle;
         this.jwtUtil = jwtUtil;
+        this.db = db;
+        this.badCredentials = Counter.builder("auth.failures").tag("reason", "bad_credentials")
+                .description("Failed authentications: wrong credentials on login, or a bad or expired bearer token")
+                .register(meterRegistry);
     }
 
     record RegisterRequest(String username, String password) {}
     record LoginRequest(String username, String password) {}
 
     @PostMapping("/register")
-    public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest req) {
+    public CompletableFuture<ResponseEntity<?>> register(@Valid @RequestBody RegisterRequest req) {
         if (userRepository.existsByUsername(req.username())) {
-            return ResponseEntity.badRequest().body(Map.of("message", "Username already exists"));
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.badRequest().body(Map.of("message", "Username already exists")));
         }
-        UserAccount user = new UserAccount(req.username(), passwordEncoder.encode(req.password()), "USER");
-        UserAccount saved = userRepository.save(user);
-        URI location = URI.create("/api/users/" + saved.getId());
-        return ResponseEntity.created(location).body(Map.of("id", saved.getId(), "username", saved.getUsername()));
+        return passwordHasher.encode(req.password()).thenApplyAsync(hash -> {
+            UserAccount saved = userRepository.save(new UserAccount(req.username(), hash, "USER"));
+            URI location = URI.create("/api/users/" + saved.getId());
+            return ResponseEntity.created(location).body(Map.of("id", saved.getId(), "username", saved.getUsername()));
+        }, db);
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest req) {
-        return userRepository.findByUsername(req.username())
-                .map(user -> {
-                    if (passwordEncoder.matches(req.password(), user.getPassword())) {
-                        String token = jwtUtil.generateToken(user.getUsername());
-                        return ResponseEntity.ok(Map.of("token", token));
-                    } else {
-                        return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
+    public CompletableFuture<ResponseEntity<?>> login(@Valid @RequestBody LoginRequest req, HttpServletRequest http) {
+        String ip = http.getRemoteAddr();
+        loginThrottle.begin(req.username(), ip);
+
+        Optional<UserAccount> user = userRepository.findByUsername(req.username());
+        if (user.isEmpty()) {
+            return CompletableFuture.completedFuture(invalidCredentials());
+        }
+        return passwordHasher.matches(req.password(), user.get().getPassword())
+                .<ResponseEntity<?>>thenApply(matches -> {
+                    if (!matches) {
+                        return invalidCredentials();
                     }
+                    loginThrottle.succeeded(req.username(), ip);
+                    return ResponseEntity.ok(Map.of("token", jwtUtil.generateToken(user.get().getUsername())));
                 })
-                .orElse(ResponseEntity.status(401).body(Map.of("message", "Invalid credentials")));
+                .whenComplete((response, ex) -> {
+                    if (ex != null) loginThrottle.abandoned(req.username(), ip);
+                });
+    }
+
+    private ResponseEntity<?> invalidCredentials() {
+        badCredentials.increment();
+        return ResponseEntity.status(401).body(Map.of("message", "Invalid credentials"));
     }
 }
@@ -5,8 +5,10 @@ import com.cop_3060.service.ExternalApiService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/external")
@@ -19,14 +21,25 @@ public class ExternalController {
     }
 
     @GetMapping("/weather")
-    public ResponseEntity<?> weather(@RequestParam String city) {
-        Optional<ExternalData> fetched = externalApiService.fetchWeatherForCity(city);
-        if (fetched.isPresent()) {
-            return ResponseEntity.ok().body(fetched.get());
-        } else {
-            // consistent JSON shape for errors
-            return ResponseEntity.status(503).body(Map.of("error", "External API key not configured or failed to fetch data"));
-        }
+    public CompletableFuture<ResponseEntity<?>> weather(@RequestParam String city) {
+        // Async: the servlet thread is released while the upstream calls are in flight
+        return externalApiService.fetchWeatherForCityAsync(city).thenApply(fetched -> {
+            if (fetched.isPresent()) {
+                return ResponseEntity.ok().body(fetched.get());
+            } else {
+                // consistent JSON shape for errors
+                return ResponseEntity.status(503).body(Map.of("error", "External API key not configured or failed to fetch data"));
+            }
+        });
+    }
+
+    /**
+     * Weather for several cities in one call, e.g. /api/external/weather/batch?city=Orlando&city=Miami.
+     * Returns { city: data } in request order; cities that could not be fetched map to null.
+     */
+    @GetMapping("/weather/batch")
+    public CompletableFuture<Map<String, ExternalData>> weatherBatch(@RequestParam("city") List<String> cities) {
+        return externalApiService.fetchWeatherForCitiesAsync(cities);
     }
 
     @GetMapping("/latest")
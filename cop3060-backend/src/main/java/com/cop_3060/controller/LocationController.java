@@ -34,8 +34,13 @@ public class LocationController {
     public ResponseEntity<Map<String, Object>> list(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) String sort
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor
     ) {
+        // cursor (even empty) selects keyset paging
+        if (cursor != null) {
+            return ResponseEntity.ok(locationService.findAllKeyset(cursor, size));
+        }
         Map<String, Object> envelope = locationService.findAll(page, size, sort);
         return ResponseEntity.ok(envelope);
     }
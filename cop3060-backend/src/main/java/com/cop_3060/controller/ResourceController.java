@@ -1,15 +1,23 @@
 package com.cop_3060.controller;
 
+import com.cop_3060.dto.BatchItemResult;
+import com.cop_3060.dto.BatchUpdateResourceRequest;
 import com.cop_3060.dto.CreateResourceRequest;
 import com.cop_3060.dto.ResourceDto;
 import com.cop_3060.dto.UpdateResourceRequest;
+import com.cop_3060.service.ResourceExportService;
 import com.cop_3060.service.ResourceService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -17,9 +25,11 @@ import java.util.Map;
 public class ResourceController {
 
     private final ResourceService resourceService;
+    private final ResourceExportService resourceExportService;
 
-    public ResourceController(ResourceService resourceService) {
+    public ResourceController(ResourceService resourceService, ResourceExportService resourceExportService) {
         this.resourceService = resourceService;
+        this.resourceExportService = resourceExportService;
     }
 
     @PostMapping
@@ -30,18 +40,57 @@ public class ResourceController {
         return ResponseEntity.created(location).body(created);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<BatchItemResult>> createBatch(@RequestBody List<CreateResourceRequest> requests) {
+        return ResponseEntity.ok(resourceService.createAll(requests));
+    }
+
+    @PutMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<BatchItemResult>> updateBatch(@RequestBody List<BatchUpdateResourceRequest> requests) {
+        return ResponseEntity.ok(resourceService.updateAll(requests));
+    }
+
+    @DeleteMapping("/batch")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<List<BatchItemResult>> deleteBatch(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(resourceService.deleteAll(ids));
+    }
+
     @GetMapping
     public ResponseEntity<Map<String, Object>> list(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(required = false) String sort,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String q
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor
     ) {
+        // cursor (even empty) selects keyset paging; text search stays offset-paged
+        if (cursor != null && (q == null || q.isBlank())) {
+            return ResponseEntity.ok(resourceService.findAllKeyset(cursor, size, category));
+        }
         Map<String, Object> envelope = resourceService.findAll(page, size, sort, category, q);
         return ResponseEntity.ok(envelope);
     }
 
+    /**
+     * Stream the whole catalog as NDJSON (default) or CSV without paging.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "ndjson") String format) {
+        ResourceExportService.Format fmt = ResourceExportService.parseFormat(format);
+        StreamingResponseBody body = out -> resourceExportService.export(fmt, out);
+        return ResponseEntity.ok()
+                .contentType(fmt == ResourceExportService.Format.CSV
+                        ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"resources." + fmt.name().toLowerCase() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ResourceDto> getById(@PathVariable Long id) {
         return ResponseEntity.ok(resourceService.findById(id));
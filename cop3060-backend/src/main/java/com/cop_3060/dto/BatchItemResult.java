@@ -0,0 +1,27 @@
+package com.cop_3060.dto;
+
+/**
+ * Outcome of one item of a bulk Resource request.
+ * {@code index} is the item's position in the request body and {@code status}
+ * is the HTTP status the equivalent single-item call would have returned.
+ */
+public record BatchItemResult(
+        int index,
+        Long id,
+        int status,
+        String error,
+        ResourceDto resource
+) {
+
+    public static BatchItemResult ok(int index, int status, ResourceDto resource) {
+        return new BatchItemResult(index, resource.id(), status, null, resource);
+    }
+
+    public static BatchItemResult done(int index, Long id, int status) {
+        return new BatchItemResult(index, id, status, null, null);
+    }
+
+    public static BatchItemResult failed(int index, Long id, int status, String error) {
+        return new BatchItemResult(index, id, status, error, null);
+    }
+}
@@ -0,0 +1,29 @@
+package com.cop_3060.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One item of a bulk Resource update.
+ * Used in PUT /api/resources/batch.
+ */
+public record BatchUpdateResourceRequest(
+
+        @NotNull(message = "id is required")
+        Long id,
+
+        @NotBlank(message = "Name is required")
+        @Size(max = 100, message = "Name must be under 100 characters")
+        String name,
+
+        @NotBlank(message = "Description is required")
+        @Size(max = 255, message = "Description must be under 255 characters")
+        String description,
+
+        @NotNull(message = "locationId is required")
+        Long locationId,
+
+        @NotNull(message = "categoryId is required")
+        Long categoryId
+) {}
@@ -0,0 +1,29 @@
+package com.cop_3060.dto;
+
+/**
+ * Flat projection of a Resource joined with its Location and Category.
+ * Built directly by JPQL constructor expressions so a page of resources
+ * is read in a single SQL round trip without loading entities.
+ */
+public record ResourceRow(
+        Long id,
+        String name,
+        String description,
+        Long locationId,
+        String building,
+        String room,
+        Long categoryId,
+        String categoryName,
+        String categoryDescription
+) {
+
+    public ResourceDto toDto() {
+        return new ResourceDto(
+                id,
+                name,
+                description,
+                new LocationDto(locationId, building, room),
+                new CategoryDto(categoryId, categoryName, categoryDescription)
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package com.cop_3060.dto;
+
+/**
+ * Lightweight projection of a Resource used to (re)build the search index.
+ * Carries only the text columns, so no location/category joins are needed.
+ */
+public record ResourceSearchRow(
+        Long id,
+        String name,
+        String description
+) {}
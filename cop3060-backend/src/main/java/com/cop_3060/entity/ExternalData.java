@@ -4,7 +4,10 @@ import jakarta.persistence.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "external_data")
+@Table(name = "external_data", indexes = {
+        // serves the "latest snapshot for a key" lookup as a single index seek
+        @Index(name = "idx_external_data_source_key_fetched", columnList = "source, key_name, fetched_at")
+})
 public class ExternalData {
 
     @Id
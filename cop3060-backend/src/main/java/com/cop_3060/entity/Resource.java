@@ -6,7 +6,10 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 
 @Entity
-@Table(name = "resources")
+@Table(name = "resources", indexes = {
+        @Index(name = "idx_resources_name_id", columnList = "name, id"),
+        @Index(name = "idx_resources_category_name_id", columnList = "category_id, name, id")
+})
 public class Resource {
 
     @Id
@@ -1,13 +1,19 @@
 package com.cop_3060.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -27,6 +33,11 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
+    /** A bug hit by every request would otherwise log the same stack trace per request. */
+    private final ThrottledExceptionLogger unexpected = new ThrottledExceptionLogger(log, Duration.ofMinutes(1));
+
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<Map<String, Object>> handleNotFound(
             NotFoundException ex, HttpServletRequest req) {
@@ -45,6 +56,43 @@ public class GlobalExceptionHandler {
         return error(409, "Conflict", ex.getMessage(), req.getRequestURI());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidCursor(
+            InvalidCursorException ex, HttpServletRequest req) {
+        return error(400, "Invalid Cursor", ex.getMessage(), req.getRequestURI());
+    }
+
+    @ExceptionHandler(UnsupportedFormatException.class)
+    public ResponseEntity<Map<String, Object>> handleUnsupportedFormat(
+            UnsupportedFormatException ex, HttpServletRequest req) {
+        return error(400, "Unsupported Format", ex.getMessage(), req.getRequestURI());
+    }
+
+    @ExceptionHandler(PayloadTooLargeException.class)
+    public ResponseEntity<Map<String, Object>> handlePayloadTooLarge(
+            PayloadTooLargeException ex, HttpServletRequest req) {
+        return error(413, "Payload Too Large", ex.getMessage(), req.getRequestURI());
+    }
+
+    @ExceptionHandler(UpstreamUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleUpstreamUnavailable(
+            UpstreamUnavailableException ex, HttpServletRequest req) {
+        return error(503, "Service Unavailable", ex.getMessage(), req.getRequestURI());
+    }
+
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<Map<String, Object>> handleServiceBusy(
+            ServiceBusyException ex, HttpServletRequest req) {
+        return withRetryAfter(error(503, "Service Unavailable", ex.getMessage(), req.getRequestURI()), 1);
+    }
+
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<Map<String, Object>> handleTooManyAttempts(
+            TooManyAttemptsException ex, HttpServletRequest req) {
+        return withRetryAfter(error(429, "Too Many Requests", ex.getMessage(), req.getRequestURI()),
+                Math.max(1, ex.getRetryAfter().toSeconds()));
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidation(
             MethodArgumentNotValidException ex, HttpServletRequest req) {
@@ -58,10 +106,22 @@ public class GlobalExceptionHandler {
         return error(400, "Validation Failed", message, req.getRequestURI());
     }
 
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<Map<String, Object>> handleNoResource(
+            NoResourceFoundException ex, HttpServletRequest req) {
+        return error(404, "Not Found", "No endpoint " + req.getMethod() + " " + req.getRequestURI(), req.getRequestURI());
+    }
+
+    @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
+    public ResponseEntity<Map<String, Object>> handleMethodNotSupported(
+            HttpRequestMethodNotSupportedException ex, HttpServletRequest req) {
+        return error(405, "Method Not Allowed", ex.getMessage(), req.getRequestURI());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, Object>> handleGeneric(
             Exception ex, HttpServletRequest req) {
-        ex.printStackTrace();
+        unexpected.error(ex, "Unhandled exception on {} {}", req.getMethod(), req.getRequestURI());
         return error(500, "Internal Server Error", ex.getMessage(), req.getRequestURI());
     }
 
@@ -85,6 +145,13 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(status).body(body);
     }
 
+    private ResponseEntity<Map<String, Object>> withRetryAfter(
+            ResponseEntity<Map<String, Object>> response, long seconds) {
+        return ResponseEntity.status(response.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(response.getBody());
+    }
+
     private String formatFieldError(FieldError field) {
         return field.getField() + ": " + field.getDefaultMessage();
     }
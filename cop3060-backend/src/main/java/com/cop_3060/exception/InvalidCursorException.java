@@ -0,0 +1,15 @@
+package com.cop_3060.exception;
+
+/**
+ * Thrown when a keyset pagination cursor cannot be decoded.
+ * E.g., when a client sends a truncated or hand-edited nextCursor value.
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+    public InvalidCursorException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
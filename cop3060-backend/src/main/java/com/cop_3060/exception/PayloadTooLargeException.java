@@ -0,0 +1,15 @@
+package com.cop_3060.exception;
+
+/**
+ * Thrown when a request carries more items than the endpoint accepts.
+ * E.g., a bulk resource import larger than the configured batch limit.
+ */
+public class PayloadTooLargeException extends RuntimeException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+
+    public PayloadTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.cop_3060.exception;
+
+/**
+ * Thrown when a bounded internal worker pool has no room for more work.
+ * E.g., the password hashing queue is full during a login burst.
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
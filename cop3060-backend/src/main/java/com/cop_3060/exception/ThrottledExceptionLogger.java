@@ -0,0 +1,88 @@
+package com.cop_3060.exception;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.event.Level;
+import org.slf4j.spi.LoggingEventBuilder;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Logs an exception with its stack trace at most once per window for each distinct failure
+ * (same type and throwing frame, whatever the message). Repeats inside the window are only counted, and the
+ * count goes out as a "suppressed" field with the next one logged. During an upstream outage,
+ * when every request fails the same way, this logs one stack trace per window, not one per request.
+ */
+public class ThrottledExceptionLogger {
+
+    private final Logger log;
+    private final long windowNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, Occurrences> seen;
+
+    public ThrottledExceptionLogger(Logger log, Duration window) {
+        this(log, window, System::nanoTime);
+    }
+
+    ThrottledExceptionLogger(Logger log, Duration window, LongSupplier nanoClock) {
+        this.log = log;
+        this.windowNanos = window.toNanos();
+        this.nanoClock = nanoClock;
+        this.seen = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                .expireAfterAccess(window.multipliedBy(10))
+                .build();
+    }
+
+    public void warn(Throwable ex, String message, Object... args) {
+        log(Level.WARN, ex, message, args);
+    }
+
+    public void error(Throwable ex, String message, Object... args) {
+        log(Level.ERROR, ex, message, args);
+    }
+
+    /** Returns whether the event was logged (false when disabled or suppressed). */
+    boolean log(Level level, Throwable ex, String message, Object... args) {
+        if (!log.isEnabledForLevel(level)) {
+            return false;
+        }
+        int suppressed = seen.get(signature(ex), k -> new Occurrences()).tryLog(nanoClock.getAsLong(), windowNanos);
+        if (suppressed < 0) {
+            return false;
+        }
+        LoggingEventBuilder event = log.atLevel(level).setCause(ex);
+        if (suppressed > 0) {
+            event = event.addKeyValue("suppressed", suppressed);
+        }
+        event.log(message, args);
+        return true;
+    }
+
+    /** Messages often carry ids or timings, so they are left out to keep one entry per failure site. */
+    private static String signature(Throwable ex) {
+        StackTraceElement[] frames = ex.getStackTrace();
+        return ex.getClass().getName() + '|' + (frames.length > 0 ? frames[0] : "");
+    }
+
+    private static final class Occurrences {
+        private boolean logged;
+        private long lastLogged;
+        private int suppressed;
+
+        /** Repeats suppressed since the last logged one, or -1 if this one is suppressed too. */
+        synchronized int tryLog(long now, long window) {
+            if (logged && now - lastLogged < window) {
+                suppressed++;
+                return -1;
+            }
+            logged = true;
+            lastLogged = now;
+            int count = suppressed;
+            suppressed = 0;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.cop_3060.exception;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a caller has used up its login attempts for the current window.
+ * E.g., five wrong passwords for the same username within fifteen minutes.
+ */
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyAttemptsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,15 @@
+package com.cop_3060.exception;
+
+/**
+ * Thrown when a client asks for a response format the endpoint cannot produce.
+ * E.g., when GET /api/resources/export is called with format=xml.
+ */
+public class UnsupportedFormatException extends RuntimeException {
+    public UnsupportedFormatException(String message) {
+        super(message);
+    }
+
+    public UnsupportedFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
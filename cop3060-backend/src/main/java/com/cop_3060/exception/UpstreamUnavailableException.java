@@ -0,0 +1,15 @@
+package com.cop_3060.exception;
+
+/**
+ * Thrown when a third-party API cannot be called right now.
+ * E.g., every connection slot for the host is busy, or the call timed out.
+ */
+public class UpstreamUnavailableException extends RuntimeException {
+    public UpstreamUnavailableException(String message) {
+        super(message);
+    }
+
+    public UpstreamUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,9 +1,37 @@
 package com.cop_3060.repository;
 
 import com.cop_3060.entity.Category;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    /**
+     * First keyset page of categories, ordered by (name, id). Returns a Slice: no count query.
+     */
+    @Query("SELECT c FROM Category c ORDER BY c.name, c.id")
+    Slice<Category> findKeysetFirst(Pageable pageable);
+
+    /**
+     * Keyset page of categories that sort after the (name, id) position of a cursor.
+     */
+    @Query("SELECT c FROM Category c WHERE c.name > ?1 OR (c.name = ?1 AND c.id > ?2) ORDER BY c.name, c.id")
+    Slice<Category> findKeysetAfter(String name, Long id, Pageable pageable);
+
+    /**
+     * The categories with these ids, share-locked (FOR SHARE on MySQL) until the transaction ends,
+     * so they cannot be deleted while resources referencing them are written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT c FROM Category c WHERE c.id IN ?1")
+    List<Category> lockAllById(Collection<Long> ids);
 }
@@ -1,12 +1,41 @@
 package com.cop_3060.repository;
 
 import com.cop_3060.entity.ExternalData;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ExternalDataRepository extends JpaRepository<ExternalData, Long> {
     Optional<ExternalData> findFirstBySourceAndKeyNameOrderByFetchedAtDesc(String source, String keyName);
+
+    /**
+     * (source, keyName) pairs that have more than {@code keep} snapshots.
+     */
+    @Query("SELECT e.source, e.keyName FROM ExternalData e GROUP BY e.source, e.keyName HAVING COUNT(e) > ?1")
+    List<Object[]> findKeysWithMoreThan(long keep);
+
+    /**
+     * Ids of a key's snapshots, newest first. Page 0 of size N gives the N snapshots to keep.
+     */
+    @Query("SELECT e.id FROM ExternalData e WHERE e.source = ?1 AND e.keyName = ?2 ORDER BY e.fetchedAt DESC, e.id DESC")
+    List<Long> findIdsNewestFirst(String source, String keyName, Pageable pageable);
+
+    /**
+     * One batch of a key's snapshots that are not in {@code keepIds}.
+     */
+    @Query("SELECT e.id FROM ExternalData e WHERE e.source = ?1 AND e.keyName = ?2 AND e.id NOT IN ?3 ORDER BY e.id")
+    List<Long> findIdsExcept(String source, String keyName, Collection<Long> keepIds, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ExternalData e WHERE e.id IN ?1")
+    int deleteByIdIn(Collection<Long> ids);
 }
@@ -1,9 +1,37 @@
 package com.cop_3060.repository;
 
 import com.cop_3060.entity.Location;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface LocationRepository extends JpaRepository<Location, Long> {
+
+    /**
+     * First keyset page of locations, ordered by (building, id). Returns a Slice: no count query.
+     */
+    @Query("SELECT l FROM Location l ORDER BY l.building, l.id")
+    Slice<Location> findKeysetFirst(Pageable pageable);
+
+    /**
+     * Keyset page of locations that sort after the (building, id) position of a cursor.
+     */
+    @Query("SELECT l FROM Location l WHERE l.building > ?1 OR (l.building = ?1 AND l.id > ?2) ORDER BY l.building, l.id")
+    Slice<Location> findKeysetAfter(String building, Long id, Pageable pageable);
+
+    /**
+     * The locations with these ids, share-locked (FOR SHARE on MySQL) until the transaction ends,
+     * so they cannot be deleted while resources referencing them are written.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT l FROM Location l WHERE l.id IN ?1")
+    List<Location> lockAllById(Collection<Long> ids);
 }
@@ -0,0 +1,138 @@
+package com.cop_3060.repository;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * JDBC batch writes for bulk resource imports.
+ *
+ * Resource ids use IDENTITY generation, which makes Hibernate insert one row per
+ * statement. These methods send each bulk request as a single JDBC batch instead
+ * (a multi-row INSERT on MySQL with rewriteBatchedStatements=true) and read the
+ * generated ids back from the batch.
+ */
+@Repository
+public class ResourceBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO resources (name, description, location_id, category_id) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_SQL =
+            "UPDATE resources SET name = ?, description = ?, location_id = ?, category_id = ? WHERE id = ?";
+    private static final String DELETE_SQL =
+            "DELETE FROM resources WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ResourceBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Column values of one row to insert or update.
+     */
+    public record Row(Long id, String name, String description, Long locationId, Long categoryId) {}
+
+    /**
+     * Insert all rows in one batch and return their generated ids, in input order.
+     */
+    @Transactional
+    public List<Long> insertAll(List<Row> rows) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Row row = rows.get(i);
+                        ps.setString(1, row.name());
+                        ps.setString(2, row.description());
+                        ps.setLong(3, row.locationId());
+                        ps.setLong(4, row.categoryId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keys);
+        return keys.getKeyList().stream()
+                .map(ResourceBatchRepository::generatedId)
+                .toList();
+    }
+
+    /**
+     * Update all rows in one batch and return, in input order, whether each row was updated.
+     * The rows are locked first, and only those found are written, so a row deleted before
+     * the lock is reported as false. Update counts are not used: with
+     * rewriteBatchedStatements=true, MySQL answers {@link Statement#SUCCESS_NO_INFO} for every row.
+     */
+    @Transactional
+    public boolean[] updateAll(List<Row> rows) {
+        Set<Long> locked = lock(rows.stream().map(Row::id).toList());
+        List<Row> present = rows.stream().filter(row -> locked.contains(row.id())).toList();
+        if (!present.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, present, present.size(), (ps, row) -> {
+                ps.setString(1, row.name());
+                ps.setString(2, row.description());
+                ps.setLong(3, row.locationId());
+                ps.setLong(4, row.categoryId());
+                ps.setLong(5, row.id());
+            });
+        }
+        return found(rows.stream().map(Row::id).toList(), locked);
+    }
+
+    /**
+     * Delete all ids in one batch and return, in input order, whether each row was deleted by
+     * this call. Rows are locked first, as in {@link #updateAll}.
+     */
+    @Transactional
+    public boolean[] deleteAll(List<Long> ids) {
+        Set<Long> locked = lock(ids);
+        List<Long> present = ids.stream().filter(locked::contains).toList();
+        if (!present.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_SQL, present, present.size(), (ps, id) -> ps.setLong(1, id));
+        }
+        return found(ids, locked);
+    }
+
+    /** Lock the rows of {@code ids} until the transaction ends and return the ids that exist. */
+    private Set<Long> lock(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Set.of();
+        }
+        String sql = "SELECT id FROM resources WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?"))
+                + ") FOR UPDATE";
+        return new HashSet<>(jdbcTemplate.queryForList(sql, Long.class, ids.toArray()));
+    }
+
+    private static boolean[] found(List<Long> ids, Set<Long> locked) {
+        boolean[] found = new boolean[ids.size()];
+        for (int i = 0; i < found.length; i++) {
+            found[i] = locked.contains(ids.get(i));
+        }
+        return found;
+    }
+
+    // drivers name the generated key column differently (GENERATED_KEY on MySQL, ID on H2)
+    private static Long generatedId(Map<String, Object> keys) {
+        return ((Number) keys.values().iterator().next()).longValue();
+    }
+}
@@ -1,15 +1,29 @@
 package com.cop_3060.repository;
 
+import com.cop_3060.dto.ResourceRow;
+import com.cop_3060.dto.ResourceSearchRow;
 import com.cop_3060.entity.Resource;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
 @Repository
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
-    
+
+    /** Constructor expression shared by the flat-row projection queries below. */
+    String ROW_COLUMNS = "new com.cop_3060.dto.ResourceRow(r.id, r.name, r.description, " +
+            "l.id, l.building, l.room, c.id, c.name, c.description)";
+
     /**
      * Find resources by category ID.
      */
@@ -26,6 +40,83 @@ public interface ResourceRepository extends JpaRepository<Resource, Long> {
     @Query("SELECT r FROM Resource r WHERE LOWER(r.name) LIKE LOWER(CONCAT('%', ?1, '%'))")
     Page<Resource> searchByName(String name, Pageable pageable);
 
+    /**
+     * List resources with their location and category as flat rows.
+     * The count query skips the joins: both foreign keys are non-null.
+     */
+    @Query(value = "SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c",
+            countQuery = "SELECT COUNT(r) FROM Resource r")
+    Page<ResourceRow> findAllRows(Pageable pageable);
+
+    /**
+     * List resources of one category as flat rows.
+     */
+    @Query(value = "SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c " +
+            "WHERE c.id = ?1",
+            countQuery = "SELECT COUNT(r) FROM Resource r WHERE r.category.id = ?1")
+    Page<ResourceRow> findRowsByCategoryId(Long categoryId, Pageable pageable);
+
+    /**
+     * First keyset page of resources, ordered by (name, id). Returns a Slice: no count query.
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c " +
+            "ORDER BY r.name, r.id")
+    Slice<ResourceRow> findRowsFirst(Pageable pageable);
+
+    /**
+     * Keyset page of resources that sort after the (name, id) position of a cursor.
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c " +
+            "WHERE r.name > ?1 OR (r.name = ?1 AND r.id > ?2) ORDER BY r.name, r.id")
+    Slice<ResourceRow> findRowsAfter(String name, Long id, Pageable pageable);
+
+    /**
+     * First keyset page of one category's resources, ordered by (name, id).
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c " +
+            "WHERE c.id = ?1 ORDER BY r.name, r.id")
+    Slice<ResourceRow> findRowsByCategoryIdFirst(Long categoryId, Pageable pageable);
+
+    /**
+     * Keyset page of one category's resources after the (name, id) position of a cursor.
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c " +
+            "WHERE c.id = ?1 AND (r.name > ?2 OR (r.name = ?2 AND r.id > ?3)) ORDER BY r.name, r.id")
+    Slice<ResourceRow> findRowsByCategoryIdAfter(Long categoryId, String name, Long id, Pageable pageable);
+
+    /**
+     * Load flat rows for a known set of ids, e.g. one page of search-index hits.
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c WHERE r.id IN ?1")
+    List<ResourceRow> findRowsByIdIn(Collection<Long> ids);
+
+    /**
+     * Stream every resource as a flat row in id order, for exports. The fetch size makes the
+     * driver read rows in chunks (MySQL needs useCursorFetch=true) and rows are not managed
+     * entities, so memory stays flat however many rows are read. Must be consumed inside a
+     * read-only transaction and closed afterwards.
+     */
+    @Query("SELECT " + ROW_COLUMNS + " FROM Resource r JOIN r.location l JOIN r.category c ORDER BY r.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<ResourceRow> streamAllRows();
+
+    /**
+     * Which of the given ids exist. Used by the bulk update/delete paths.
+     */
+    @Query("SELECT r.id FROM Resource r WHERE r.id IN ?1")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    /**
+     * Read the text columns of resources with an id greater than {@code lastId}, in id order.
+     * Used to load the search index in bounded batches.
+     */
+    @Query("SELECT new com.cop_3060.dto.ResourceSearchRow(r.id, r.name, r.description) " +
+            "FROM Resource r WHERE r.id > ?1 ORDER BY r.id")
+    List<ResourceSearchRow> findSearchRowsAfter(Long lastId, Pageable pageable);
+
     /**
      * Count resources by category ID.
      */
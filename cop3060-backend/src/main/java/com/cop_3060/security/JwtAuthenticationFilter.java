@@ -1,5 +1,9 @@
 package com.cop_3060.security;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -19,9 +23,18 @@ import java.util.Collections;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
+    private final Counter invalidTokens;
 
     public JwtAuthenticationFilter(JwtUtil jwtUtil) {
+        this(jwtUtil, Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
+        this.invalidTokens = Counter.builder("auth.failures").tag("reason", "invalid_token")
+                .description("Failed authentications: wrong credentials on login, or a bad or expired bearer token")
+                .register(meterRegistry);
     }
 
     @Override
@@ -29,12 +42,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String auth = request.getHeader(HttpHeaders.AUTHORIZATION);
         if (auth != null && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
-            if (jwtUtil.validateToken(token)) {
-                String username = jwtUtil.extractUsername(token);
+            // One verification per request (and none for a token already seen)
+            jwtUtil.parseClaims(token).ifPresentOrElse(claims -> {
+                String username = claims.getSubject();
                 UserDetails userDetails = User.withUsername(username).password("").authorities(Collections.emptyList()).build();
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            }
+            }, invalidTokens::increment);
         }
         filterChain.doFilter(request, response);
     }
@@ -1,26 +1,77 @@
 package com.cop_3060.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
-public class JwtUtil {
+public class JwtUtil implements MeterBinder {
 
     private final SecretKey key;
     private final long expirationMillis;
 
+    /** Immutable and thread-safe, so built once and shared by every request. */
+    private final JwtParser parser;
+
+    /**
+     * Claims of tokens whose signature already checked out, keyed by the exact token string.
+     * Each entry expires with its token, so a client re-sending the same bearer token skips
+     * the HMAC and JSON work on every request after the first.
+     */
+    private final Cache<String, Claims> verified;
+
     public JwtUtil(@Value("${app.jwt.secret:defaultsecretchangeme}") String secret,
-                   @Value("${app.jwt.expiration-ms:3600000}") long expirationMillis) {
+                   @Value("${app.jwt.expiration-ms:3600000}") long expirationMillis,
+                   @Value("${app.jwt.cache.max-size:10000}") long cacheMaxSize) {
         // Use provided secret to create key; if default, generate from default string
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
         this.expirationMillis = expirationMillis;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    /** Hit/miss metrics for the verified-token cache (cache.gets with cache=jwt), tagged like the CacheManager's. */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, verified, "jwt", "name", "jwt", "cache.manager", "jwtUtil");
+    }
+
+    /** Entry lifetime is the token's remaining lifetime, fixed when it is cached. */
+    private final class UntilTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            return timeLeft(claims).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return timeLeft(claims).toNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 
     public String generateToken(String username) {
@@ -34,21 +85,43 @@ public class JwtUtil {
                 .compact();
     }
 
+    /**
+     * Verify the token and return its claims; empty when the signature is bad, the token is
+     * malformed or it has expired. Signature and JSON are processed once per distinct token.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (token == null || token.isBlank()) return Optional.empty();
+        Claims claims = verified.getIfPresent(token);
+        if (claims != null) {
+            // Cache eviction is lazy; never hand out a token past its expiry
+            return isExpired(claims) ? Optional.empty() : Optional.of(claims);
+        }
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (JwtException | IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        verified.put(token, claims);
+        return Optional.of(claims);
+    }
+
     public String extractUsername(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parseClaims(token).map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Invalid or expired token"));
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception ex) {
-            return false;
-        }
+        return parseClaims(token).isPresent();
+    }
+
+    private static boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.getTime() <= System.currentTimeMillis();
+    }
+
+    private Duration timeLeft(Claims claims) {
+        Date exp = claims.getExpiration();
+        long millis = exp == null ? expirationMillis : exp.getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, millis));
     }
 }
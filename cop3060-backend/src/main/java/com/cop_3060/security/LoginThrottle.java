@@ -0,0 +1,113 @@
+package com.cop_3060.security;
+
+import com.cop_3060.exception.TooManyAttemptsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limits login attempts per (username, client IP) and per client IP.
+ *
+ * Every attempt is counted up front, before any password hashing, so a burst of parallel
+ * guesses cannot slip past the limit and a blocked caller costs no BCrypt work at all.
+ * The account limit is kept per address: someone guessing a password from one address locks
+ * only that address out of the account, and the owner can still sign in from anywhere else.
+ * Guesses spread over many addresses are still bounded by each address's own limit.
+ * A successful login clears its (username, IP) count and gives the IP attempt back, so many
+ * students signing in from one campus NAT address only add up their failures.
+ * Counts expire a window after the last attempt.
+ */
+@Component
+public class LoginThrottle {
+
+    private final int maxPerUsername;
+    private final int maxPerIp;
+    private final Duration window;
+    private final Cache<Account, Integer> byAccount;
+    private final Cache<String, Integer> byIp;
+    private final Counter throttledUsername;
+    private final Counter throttledIp;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.auth.throttle.max-per-username:5}") int maxPerUsername,
+                         @Value("${app.auth.throttle.max-per-ip:50}") int maxPerIp,
+                         @Value("${app.auth.throttle.window:PT15M}") Duration window) {
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+        this.window = window;
+        this.byAccount = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build();
+        this.byIp = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build();
+        this.throttledUsername = Counter.builder("auth.login.throttled").tag("scope", "username")
+                .description("Login attempts refused by the attempt throttle")
+                .register(meterRegistry);
+        this.throttledIp = Counter.builder("auth.login.throttled").tag("scope", "ip")
+                .description("Login attempts refused by the attempt throttle")
+                .register(meterRegistry);
+    }
+
+    /** Attempts on one account from one address. */
+    private record Account(String username, String ip) {}
+
+    /**
+     * Count a new attempt, or throw {@link TooManyAttemptsException} if the username (from
+     * this IP) or the IP has none left. Must be followed by {@link #succeeded} or {@link #abandoned} unless
+     * the attempt failed on a wrong password.
+     */
+    public void begin(String username, String ip) {
+        Account account = account(username, ip);
+        if (!tryCount(byIp, ip, maxPerIp)) {
+            throttledIp.increment();
+            throw new TooManyAttemptsException("Too many login attempts from this address", retryAfter(byIp, ip));
+        }
+        if (!tryCount(byAccount, account, maxPerUsername)) {
+            giveBack(byIp, ip);
+            throttledUsername.increment();
+            throw new TooManyAttemptsException("Too many login attempts for this account", retryAfter(byAccount, account));
+        }
+    }
+
+    /** The password was right: reset the username's count for this IP and return the IP's attempt. */
+    public void succeeded(String username, String ip) {
+        byAccount.invalidate(account(username, ip));
+        giveBack(byIp, ip);
+    }
+
+    /** The attempt never got an answer (e.g. the hashing pool was full), so it does not count. */
+    public void abandoned(String username, String ip) {
+        giveBack(byAccount, account(username, ip));
+        giveBack(byIp, ip);
+    }
+
+    private static <K> boolean tryCount(Cache<K, Integer> counts, K key, int max) {
+        Integer current = counts.getIfPresent(key);
+        // Already blocked: refuse without a write, so retries do not push the window out
+        if (current != null && current >= max) return false;
+        if (counts.asMap().merge(key, 1, Integer::sum) > max) {
+            giveBack(counts, key);
+            return false;
+        }
+        return true;
+    }
+
+    private static <K> void giveBack(Cache<K, Integer> counts, K key) {
+        counts.asMap().computeIfPresent(key, (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    private <K> Duration retryAfter(Cache<K, Integer> counts, K key) {
+        return counts.policy().expireAfterWrite()
+                .flatMap(policy -> policy.ageOf(key))
+                .map(window::minus)
+                .filter(left -> !left.isNegative())
+                .orElse(window);
+    }
+
+    private static Account account(String username, String ip) {
+        return new Account(username == null ? "" : username.trim().toLowerCase(Locale.ROOT), ip);
+    }
+}
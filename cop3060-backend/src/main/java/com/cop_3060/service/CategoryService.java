@@ -1,5 +1,6 @@
 package com.cop_3060.service;
 
+import com.cop_3060.config.CacheConfig;
 import com.cop_3060.dto.CategoryDto;
 import com.cop_3060.dto.CreateCategoryRequest;
 import com.cop_3060.dto.UpdateCategoryRequest;
@@ -9,9 +10,17 @@ import com.cop_3060.exception.NotFoundException;
 import com.cop_3060.repository.CategoryRepository;
 import com.cop_3060.repository.ResourceRepository;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -23,6 +32,8 @@ import java.util.stream.Collectors;
 @Service
 public class CategoryService {
 
+    private static final Logger log = LoggerFactory.getLogger(CategoryService.class);
+
     private final CategoryRepository categoryRepository;
     private final ResourceRepository resourceRepository;
 
@@ -33,7 +44,7 @@ public class CategoryService {
 
     @PostConstruct
     public void logStartup() {
-        System.out.println("CategoryService initialized with " + categoryRepository.count() + " categories.");
+        log.info("CategoryService initialized with {} categories", categoryRepository.count());
     }
 
     public CategoryDto create(CreateCategoryRequest req) {
@@ -43,7 +54,7 @@ public class CategoryService {
     }
 
     public Map<String, Object> findAll(int page, int size, String sort) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "name"));
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "name", "id"));
         Page<Category> result = categoryRepository.findAll(pageable);
 
         List<CategoryDto> content = result.getContent()
@@ -60,12 +71,42 @@ public class CategoryService {
         return envelope;
     }
 
+    /**
+     * Keyset (seek) variant of {@link #findAll}: continues after {@code cursor} ordered by
+     * (name, id) and skips the count query, so deep pages cost the same as the first.
+     */
+    public Map<String, Object> findAllKeyset(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Category> result = after == null
+                ? categoryRepository.findKeysetFirst(limit)
+                : categoryRepository.findKeysetAfter(after.key(), after.id(), limit);
+
+        List<Category> rows = result.getContent();
+        String nextCursor = null;
+        if (result.hasNext() && !rows.isEmpty()) {
+            Category last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.getName(), last.getId()).encode();
+        }
+
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("content", rows.stream().map(this::toDto).collect(Collectors.toList()));
+        envelope.put("size", size);
+        envelope.put("hasNext", result.hasNext());
+        envelope.put("nextCursor", nextCursor);
+        return envelope;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id")
     public CategoryDto findById(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category " + id + " not found"));
         return toDto(category);
     }
 
+    // resources embed a copy of this category, so cached resources are dropped too
+    @Caching(put = @CachePut(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.RESOURCES, allEntries = true))
     public CategoryDto update(Long id, UpdateCategoryRequest req) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category " + id + " not found"));
@@ -75,6 +116,7 @@ public class CategoryService {
         return toDto(updated);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id")
     public void delete(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Category " + id + " not found"));
@@ -84,7 +126,12 @@ public class CategoryService {
             throw new ConflictException("Category " + id + " is in use by " + count + " resources");
         }
 
-        categoryRepository.deleteById(id);
+        // a resource created after the count still holds the foreign key, so the delete fails
+        try {
+            categoryRepository.deleteById(id);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Category " + id + " is in use by resources", e);
+        }
     }
 
     public boolean exists(Long id) {
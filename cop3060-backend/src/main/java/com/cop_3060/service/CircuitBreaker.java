@@ -0,0 +1,131 @@
+package com.cop_3060.service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker for one upstream provider.
+ *
+ * CLOSED lets every call through and counts consecutive failures; at the threshold it goes
+ * OPEN and rejects calls without touching the network. Once the open period is over, the
+ * next caller becomes the single HALF_OPEN probe: success closes the circuit, failure opens
+ * it again for twice as long (up to the cap). A rate-limit answer opens it for at least the
+ * upstream's Retry-After.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration baseOpen;
+    private final Duration maxOpen;
+    private final LongSupplier nanoClock;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveOpens;
+    private long openUntil;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration baseOpen, Duration maxOpen, LongSupplier nanoClock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseOpen = baseOpen;
+        this.maxOpen = maxOpen.compareTo(baseOpen) < 0 ? baseOpen : maxOpen;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Whether a call may go upstream now. A true answer must be followed by exactly one of
+     * {@link #onSuccess()}, {@link #onFailure()}, {@link #onRateLimited(Duration)} or
+     * {@link #onNotAttempted()}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+        if (state == State.OPEN) {
+            if (nanoClock.getAsLong() - openUntil < 0) return false;
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (probeInFlight) return false;
+        probeInFlight = true;
+        return true;
+    }
+
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        consecutiveOpens = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN || ++consecutiveFailures >= failureThreshold) {
+            open(backoff());
+        }
+    }
+
+    /**
+     * The upstream said "too many requests": back off for its Retry-After, or our own
+     * backoff if that is longer.
+     */
+    public synchronized void onRateLimited(Duration retryAfter) {
+        Duration backoff = backoff();
+        open(retryAfter.compareTo(backoff) > 0 ? retryAfter : backoff);
+    }
+
+    /**
+     * The acquired call never reached the upstream (e.g. our own bulkhead was full), so it
+     * says nothing about the provider's health; frees the half-open probe slot.
+     */
+    public synchronized void onNotAttempted() {
+        probeInFlight = false;
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * Time left before an open circuit lets a probe through; zero when not open.
+     */
+    public synchronized Duration remainingOpen() {
+        if (state != State.OPEN) return Duration.ZERO;
+        return Duration.ofNanos(Math.max(0, openUntil - nanoClock.getAsLong()));
+    }
+
+    private void open(Duration duration) {
+        state = State.OPEN;
+        openUntil = nanoClock.getAsLong() + duration.toNanos();
+        consecutiveFailures = 0;
+        consecutiveOpens++;
+        probeInFlight = false;
+    }
+
+    /** baseOpen * 2^(opens so far), capped at maxOpen. */
+    private Duration backoff() {
+        Duration d = baseOpen.multipliedBy(1L << Math.min(consecutiveOpens, 20));
+        return d.compareTo(maxOpen) > 0 ? maxOpen : d;
+    }
+
+    /**
+     * Parse a Retry-After header value, either delay-seconds or an HTTP-date.
+     * Unparseable or past values give zero.
+     */
+    public static Duration parseRetryAfter(String value) {
+        if (value == null || value.isBlank()) return Duration.ZERO;
+        try {
+            return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration d = Duration.between(ZonedDateTime.now(at.getZone()), at);
+                return d.isNegative() ? Duration.ZERO : d;
+            } catch (DateTimeParseException ignored) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
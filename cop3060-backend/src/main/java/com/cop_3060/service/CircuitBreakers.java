@@ -0,0 +1,118 @@
+package com.cop_3060.service;
+
+import com.cop_3060.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpTimeoutException;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * One {@link CircuitBreaker} per external provider, wrapped around {@link ExternalHttpClient}.
+ * Open-Meteo geocoding and forecast are tracked apart, so one endpoint's successes cannot
+ * mask the other's failures.
+ *
+ * The client's per-host slot limit is the bulkhead (a slow provider can tie up at most that
+ * many connections); the breaker stops calling a provider that keeps failing, so during an
+ * outage requests are answered from what we already have instead of waiting on timeouts.
+ *
+ * Metrics: {@code external.circuit.state} (0 closed, 1 open, 2 half-open),
+ * {@code external.circuit.rejected} and {@code external.upstream.errors} (tagged with a reason:
+ * 5xx, 429, timeout or io), all tagged with the provider.
+ */
+@Component
+public class CircuitBreakers {
+
+    private final MeterRegistry meterRegistry;
+    private final int failureThreshold;
+    private final Duration baseOpen;
+    private final Duration maxOpen;
+    private final LongSupplier nanoClock;
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejected = new ConcurrentHashMap<>();
+    private final Map<String, Counter> upstreamErrors = new ConcurrentHashMap<>();
+
+    @Autowired
+    public CircuitBreakers(MeterRegistry meterRegistry,
+                           @Value("${external.circuit.failure-threshold:5}") int failureThreshold,
+                           @Value("${external.circuit.open:PT10S}") Duration baseOpen,
+                           @Value("${external.circuit.max-open:PT5M}") Duration maxOpen) {
+        this(meterRegistry, failureThreshold, baseOpen, maxOpen, System::nanoTime);
+    }
+
+    CircuitBreakers(MeterRegistry meterRegistry, int failureThreshold, Duration baseOpen, Duration maxOpen,
+                    LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.failureThreshold = failureThreshold;
+        this.baseOpen = baseOpen;
+        this.maxOpen = maxOpen;
+        this.nanoClock = nanoClock;
+    }
+
+    public CircuitBreaker forProvider(String provider) {
+        return breakers.computeIfAbsent(provider, p -> {
+            CircuitBreaker breaker = new CircuitBreaker(failureThreshold, baseOpen, maxOpen, nanoClock);
+            Gauge.builder("external.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("Circuit state per provider: 0 closed, 1 open, 2 half-open")
+                    .tag("provider", p)
+                    .register(meterRegistry);
+            return breaker;
+        });
+    }
+
+    /**
+     * GET {@code uri} through {@code provider}'s breaker. While the circuit is open this
+     * completes at once with {@link UpstreamUnavailableException}. Any HTTP answer below 500
+     * (other than 429) counts as the provider being healthy.
+     */
+    public CompletableFuture<HttpResponse<String>> call(String provider, ExternalHttpClient http, URI uri) {
+        CircuitBreaker breaker = forProvider(provider);
+        if (!breaker.tryAcquire()) {
+            rejected.computeIfAbsent(provider, p -> Counter.builder("external.circuit.rejected")
+                    .description("External calls refused because the provider's circuit was open")
+                    .tag("provider", p)
+                    .register(meterRegistry)).increment();
+            return CompletableFuture.failedFuture(new UpstreamUnavailableException(
+                    "Circuit for %s is open, retry in %ds".formatted(provider, breaker.remainingOpen().toSeconds())));
+        }
+        return http.getAsync(uri).whenComplete((resp, ex) -> {
+            if (ex != null) {
+                Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+                // Our own bulkhead refused the call: the provider was never asked
+                if (cause instanceof UpstreamUnavailableException) {
+                    breaker.onNotAttempted();
+                } else {
+                    breaker.onFailure();
+                    upstreamError(provider, cause instanceof HttpTimeoutException ? "timeout" : "io");
+                }
+            } else if (resp.statusCode() == 429) {
+                breaker.onRateLimited(CircuitBreaker.parseRetryAfter(resp.headers().firstValue("Retry-After").orElse(null)));
+                upstreamError(provider, "429");
+            } else if (resp.statusCode() >= 500) {
+                breaker.onFailure();
+                upstreamError(provider, "5xx");
+            } else {
+                breaker.onSuccess();
+            }
+        });
+    }
+
+    private void upstreamError(String provider, String reason) {
+        upstreamErrors.computeIfAbsent(provider + '/' + reason, k -> Counter.builder("external.upstream.errors")
+                .description("External calls that failed or that the provider answered with 429 or 5xx")
+                .tag("provider", provider)
+                .tag("reason", reason)
+                .register(meterRegistry)).increment();
+    }
+}
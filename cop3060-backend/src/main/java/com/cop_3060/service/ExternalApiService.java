@@ -1,158 +1,684 @@
 package com.cop_3060.service;
 
+import com.cop_3060.config.DatabaseExecutor;
 import com.cop_3060.entity.ExternalData;
+import com.cop_3060.exception.PayloadTooLargeException;
+import com.cop_3060.exception.ThrottledExceptionLogger;
 import com.cop_3060.repository.ExternalDataRepository;
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.net.URLEncoder;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 @Service
-public class ExternalApiService {
+public class ExternalApiService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ExternalApiService.class);
+
+    /** During an outage every request fails alike: one stack trace per failure per minute is enough. */
+    private final ThrottledExceptionLogger failures = new ThrottledExceptionLogger(log, Duration.ofMinutes(1));
+
+    /** Most cities accepted by one batch weather request. */
+    public static final int MAX_BATCH_CITIES = 50;
+
+    /** ExternalData source under which resolved Open-Meteo coordinates are kept. */
+    static final String GEOCODE_SOURCE = "open-meteo-geocode";
 
     private final ExternalDataRepository externalDataRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final ExternalHttpClient http;
+    private final CircuitBreakers circuitBreakers;
+    /** Repository calls from the loaders run here, never on the HTTP client's io-threads. */
+    private final DatabaseExecutor db;
+    private final ObjectMapper mapper = new ObjectMapper();
     private final String openWeatherKey;
     private final long cacheTtlMinutes;
+    private final long staleMinutes;
+    private final String openWeatherUrl;
+    private final String geocodingUrl;
+    private final String forecastUrl;
+
+    /**
+     * Weather by (source, normalized city). Entries are fresh for the TTL; after that they are
+     * still served for the stale window while a single background refresh runs. A row loaded
+     * from the database is fresh only for what is left of its TTL (see {@link WeatherExpiry}). Concurrent
+     * misses for one city share one load, so a dashboard refresh costs one upstream call per city.
+     */
+    private final AsyncLoadingCache<WeatherKey, ExternalData> weatherCache;
+
+    /**
+     * The cached value each key last had an early refresh started for (see
+     * {@link #refreshIfOutlived}), so readers start it once per value. Caffeine drops a refresh's
+     * result when another refresh of the key starts just as it completes, which readers calling
+     * refresh on every read would keep doing.
+     */
+    private final Cache<WeatherKey, ExternalData> earlyRefreshes;
 
+    /**
+     * Open-Meteo coordinates by normalized city. A city's coordinates never change, so entries
+     * do not expire (only size-bounded) and are also persisted to survive restarts. Cities the
+     * geocoder does not know (or did not answer for) are cached as {@link #UNKNOWN_CITY} for
+     * the negative TTL, so a misspelled city does not cost a DB read and an upstream call on
+     * every request.
+     */
+    private final AsyncLoadingCache<String, GeoPoint> geocodeCache;
+
+    /** Decaying request counts per weather key, read by {@link WeatherRefreshScheduler}. */
+    private final Map<WeatherKey, AtomicLong> accessCounts = new ConcurrentHashMap<>();
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    @Autowired
     public ExternalApiService(ExternalDataRepository externalDataRepository,
+                              ExternalHttpClient http,
+                              CircuitBreakers circuitBreakers,
+                              DatabaseExecutor db,
                               @Value("${external.openweather.key:}") String openWeatherKey,
-                              @Value("${external.cache.ttl.minutes:10}") long cacheTtlMinutes) {
+                              @Value("${external.cache.ttl.minutes:10}") long cacheTtlMinutes,
+                              @Value("${external.cache.stale.minutes:60}") long staleMinutes,
+                              @Value("${external.cache.max-size:1000}") long cacheMaxSize,
+                              @Value("${external.geocode.cache.max-size:10000}") long geocodeMaxSize,
+                              @Value("${external.geocode.negative-ttl:PT5M}") Duration geocodeNegativeTtl,
+                              @Value("${external.openweather.url:https://api.openweathermap.org/data/2.5/weather}") String openWeatherUrl,
+                              @Value("${external.open-meteo.geocoding-url:https://geocoding-api.open-meteo.com/v1/search}") String geocodingUrl,
+                              @Value("${external.open-meteo.forecast-url:https://api.open-meteo.com/v1/forecast}") String forecastUrl) {
+        this(externalDataRepository, http, circuitBreakers, db, openWeatherKey, cacheTtlMinutes, staleMinutes, cacheMaxSize, geocodeMaxSize, geocodeNegativeTtl,
+                openWeatherUrl, geocodingUrl, forecastUrl, Ticker.systemTicker());
+    }
+
+    ExternalApiService(ExternalDataRepository externalDataRepository, ExternalHttpClient http,
+                       CircuitBreakers circuitBreakers, DatabaseExecutor db, String openWeatherKey, long cacheTtlMinutes, long staleMinutes, long cacheMaxSize, long geocodeMaxSize,
+                       Duration geocodeNegativeTtl, String openWeatherUrl, String geocodingUrl, String forecastUrl, Ticker ticker) {
         this.externalDataRepository = externalDataRepository;
+        this.http = http;
+        this.circuitBreakers = circuitBreakers;
+        this.db = db;
         this.openWeatherKey = openWeatherKey;
         this.cacheTtlMinutes = cacheTtlMinutes;
+        this.staleMinutes = staleMinutes;
+        this.openWeatherUrl = openWeatherUrl;
+        this.geocodingUrl = geocodingUrl;
+        this.forecastUrl = forecastUrl;
+        this.weatherCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .refreshAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .expireAfter(new WeatherExpiry(Duration.ofMinutes(cacheTtlMinutes), Duration.ofMinutes(staleMinutes)))
+                .executor(http.executor())
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync(new WeatherLoader());
+        this.earlyRefreshes = Caffeine.newBuilder().maximumSize(cacheMaxSize).build();
+        this.geocodeCache = Caffeine.newBuilder()
+                .maximumSize(geocodeMaxSize)
+                .expireAfter(new GeocodeExpiry(geocodeNegativeTtl))
+                .executor(http.executor())
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync((city, executor) -> geocode(city));
+    }
+
+    /**
+     * Hit/miss/eviction metrics for both caches, as cache.gets etc. with cache=weather|geocode.
+     * Tagged like the CacheManager's caches, since Prometheus needs one tag set per meter name.
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, weatherCache, "weather", "name", "weather", "cache.manager", "externalApiService");
+        CaffeineCacheMetrics.monitor(registry, geocodeCache, "geocode", "name", "geocode", "cache.manager", "externalApiService");
+    }
+
+    record GeoPoint(double latitude, double longitude, String name) {}
+
+    /** Negative geocode entry: the city could not be resolved. */
+    private static final GeoPoint UNKNOWN_CITY = new GeoPoint(Double.NaN, Double.NaN, null);
+
+    /**
+     * Weather is fresh for the TTL counted from its fetch time, not from when it was cached, then
+     * stale for the stale window. A row another instance stored 9 minutes ago is fresh for 1 more
+     * minute, not another full TTL. Rows already past their TTL (last-good fallbacks, a refresh
+     * that kept the old value) get a full TTL from now, so an outage is retried once per TTL.
+     */
+    private static final class WeatherExpiry implements Expiry<WeatherKey, ExternalData> {
+        private final Duration ttl;
+        private final Duration stale;
+
+        WeatherExpiry(Duration ttl, Duration stale) {
+            this.ttl = ttl;
+            this.stale = stale;
+        }
+
+        @Override
+        public long expireAfterCreate(WeatherKey key, ExternalData data, long currentTime) {
+            Instant fetchedAt = data.getFetchedAt();
+            Duration age = fetchedAt == null ? Duration.ZERO : Duration.between(fetchedAt, Instant.now());
+            Duration fresh = age.isNegative() || age.compareTo(ttl) > 0 ? ttl : ttl.minus(age);
+            return fresh.plus(stale).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(WeatherKey key, ExternalData data, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, data, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(WeatherKey key, ExternalData data, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /** Known coordinates never expire; unknown cities are retried after the negative TTL. */
+    private static final class GeocodeExpiry implements Expiry<String, GeoPoint> {
+        private final long negativeTtlNanos;
+
+        GeocodeExpiry(Duration negativeTtl) {
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(String city, GeoPoint point, long currentTime) {
+            return point == UNKNOWN_CITY ? negativeTtlNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String city, GeoPoint point, long currentTime, long currentDuration) {
+            return expireAfterCreate(city, point, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String city, GeoPoint point, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Cache key: source plus city trimmed, lower-cased and with single spaces.
+     * Also carries the city as first requested, which is what goes upstream and into keyName.
+     */
+    static final class WeatherKey {
+        private final String source;
+        private final String normalized;
+        private final String city;
+
+        WeatherKey(String source, String city) {
+            this.source = source;
+            this.city = city;
+            this.normalized = city.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof WeatherKey k && source.equals(k.source) && normalized.equals(k.normalized);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, normalized);
+        }
+    }
+
+    /**
+     * Loads from a fresh persisted row when there is one, else from upstream. When upstream
+     * fails (or its circuit is open) a first load falls back to the newest persisted row,
+     * however old, and caches it like any other value, so an outage costs no repeated DB reads
+     * or upstream calls per request. A failed refresh keeps serving the previous value.
+     * Completes with null only when there is nothing at all to serve, so that is not cached.
+     */
+    private final class WeatherLoader implements AsyncCacheLoader<WeatherKey, ExternalData> {
+        @Override
+        public CompletableFuture<ExternalData> asyncLoad(WeatherKey key, Executor executor) {
+            if (key.source.equals("open-meteo")) {
+                return asyncLoadAll(Set.of(key), executor).thenApply(loaded -> loaded.get(key));
+            }
+            return loadOpenWeather(key).handleAsync((data, ex) -> {
+                if (data != null) {
+                    return data;
+                }
+                Optional<ExternalData> lastGood = findLatest(key);
+                if (lastGood.isPresent() || ex == null) {
+                    return lastGood.orElse(null);
+                }
+                throw ex instanceof CompletionException ce ? ce : new CompletionException(ex);
+            }, db);
+        }
+
+        @Override
+        public CompletableFuture<Map<WeatherKey, ExternalData>> asyncLoadAll(Set<? extends WeatherKey> keys, Executor executor) {
+            return loadAll(keys).thenApplyAsync(loaded -> {
+                for (WeatherKey key : keys) {
+                    if (!loaded.containsKey(key)) {
+                        findLatest(key).ifPresent(data -> loaded.put(key, data));
+                    }
+                }
+                return loaded;
+            }, db);
+        }
+
+        @Override
+        public CompletableFuture<ExternalData> asyncReload(WeatherKey key, ExternalData oldValue, Executor executor) {
+            CompletableFuture<ExternalData> reload = key.source.equals("open-meteo")
+                    ? loadAll(Set.of(key)).thenApply(loaded -> loaded.get(key))
+                    : loadOpenWeather(key);
+            return reload.handle((value, ex) -> value != null ? value : oldValue);
+        }
+
+        /**
+         * Fresh rows plus upstream results. Open-Meteo misses are fetched with one
+         * multi-coordinate forecast call; OpenWeather has no multi-city endpoint, so those keys
+         * fan out in parallel. Keys that fail are left out of the map.
+         */
+        private CompletableFuture<Map<WeatherKey, ExternalData>> loadAll(Set<? extends WeatherKey> keys) {
+            return db.supply(() -> {
+                Map<WeatherKey, ExternalData> fresh = new HashMap<>();
+                keys.forEach(key -> findFresh(key).ifPresent(data -> fresh.put(key, data)));
+                return fresh;
+            }).thenCompose(fresh -> {
+                List<WeatherKey> openMeteo = new ArrayList<>();
+                List<CompletableFuture<Void>> openWeather = new ArrayList<>();
+                for (WeatherKey key : keys) {
+                    if (fresh.containsKey(key)) {
+                        continue;
+                    }
+                    if (key.source.equals("open-meteo")) {
+                        openMeteo.add(key);
+                    } else {
+                        openWeather.add(loadOpenWeather(key)
+                                .thenAccept(data -> {
+                                    if (data != null) {
+                                        synchronized (fresh) {
+                                            fresh.put(key, data);
+                                        }
+                                    }
+                                })
+                                .exceptionally(ex -> null));
+                    }
+                }
+                CompletableFuture<Void> meteo = openMeteo.isEmpty()
+                        ? CompletableFuture.completedFuture(null)
+                        : fetchOpenMeteo(openMeteo)
+                                .exceptionally(ex -> {
+                                    failures.warn(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex,
+                                            "Open-Meteo fetch failed for {} cities", openMeteo.size());
+                                    return Map.of();
+                                })
+                                .thenAccept(loaded -> {
+                                    synchronized (fresh) {
+                                        fresh.putAll(loaded);
+                                    }
+                                });
+                openWeather.add(meteo);
+                return CompletableFuture.allOf(openWeather.toArray(CompletableFuture[]::new)).thenApply(done -> fresh);
+            });
+        }
+
+        private CompletableFuture<ExternalData> loadOpenWeather(WeatherKey key) {
+            return db.supply(() -> findFresh(key))
+                    .thenCompose(fresh -> fresh.isPresent()
+                            ? CompletableFuture.completedFuture(fresh.get())
+                            : fetchOpenWeather(key.city).thenApply(result -> result.orElse(null)));
+        }
     }
 
     /**
      * Fetch current weather for a city from OpenWeatherMap and persist the payload.
-     * If API key is not configured, returns empty.
+     * Empty when the provider is failing and no earlier snapshot of the city is stored.
      */
     public Optional<ExternalData> fetchWeatherForCity(String city) {
+        try {
+            return fetchWeatherForCityAsync(city).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Non-blocking form of {@link #fetchWeatherForCity(String)}. Upstream calls run on the
+     * shared {@link ExternalHttpClient}, so the calling (servlet) thread is released while
+     * the geocoding and forecast requests are in flight.
+     */
+    public CompletableFuture<Optional<ExternalData>> fetchWeatherForCityAsync(String city) {
         // Determine which source we'll use for lookup and caching
         final String intendedSource = (openWeatherKey == null || openWeatherKey.isBlank()) ? "open-meteo" : "openweather";
 
-        // Try cache: if recent enough, return persisted record
+        WeatherKey key = new WeatherKey(intendedSource, city);
+        recordAccess(key);
+        return weatherCache.get(key).thenApply(data -> {
+            refreshIfOutlived(key, data);
+            return Optional.ofNullable(data);
+        });
+    }
+
+    /**
+     * Current weather for several cities at once, keyed by city as given (null when a city
+     * could not be fetched). Cached cities are answered locally; the rest are loaded together,
+     * sharing in-flight loads with concurrent single-city requests.
+     */
+    public CompletableFuture<Map<String, ExternalData>> fetchWeatherForCitiesAsync(List<String> cities) {
+        if (cities.size() > MAX_BATCH_CITIES) {
+            throw new PayloadTooLargeException("At most %d cities per batch request, got %d".formatted(MAX_BATCH_CITIES, cities.size()));
+        }
+        final String intendedSource = (openWeatherKey == null || openWeatherKey.isBlank()) ? "open-meteo" : "openweather";
+
+        Map<String, WeatherKey> keys = new LinkedHashMap<>();
+        for (String city : cities) {
+            if (city != null && !city.isBlank()) {
+                keys.putIfAbsent(city, new WeatherKey(intendedSource, city));
+            }
+        }
+        keys.values().forEach(this::recordAccess);
+        return weatherCache.getAll(new LinkedHashSet<>(keys.values())).thenApply(loaded -> {
+            keys.values().forEach(key -> refreshIfOutlived(key, loaded.get(key)));
+            Map<String, ExternalData> results = new LinkedHashMap<>();
+            keys.forEach((city, key) -> results.put(city, loaded.get(key)));
+            return results;
+        });
+    }
+
+    private void recordAccess(WeatherKey key) {
+        AtomicLong count = accessCounts.get(key);
+        if (count == null) {
+            if (accessCounts.size() >= MAX_TRACKED_KEYS) {
+                return;
+            }
+            count = accessCounts.computeIfAbsent(key, k -> new AtomicLong());
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * The most requested weather keys with at least {@code minHits} recent requests, hottest first.
+     */
+    List<WeatherKey> hotKeys(int limit, long minHits) {
+        return accessCounts.entrySet().stream()
+                .filter(e -> e.getValue().get() >= minHits)
+                .sorted((a, b) -> Long.compare(b.getValue().get(), a.getValue().get()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /**
+     * Halve every access count and forget keys that drop to zero, so "hot" means recently popular.
+     */
+    void decayAccessCounts() {
+        accessCounts.entrySet().removeIf(e -> e.getValue().updateAndGet(n -> n / 2) == 0);
+    }
+
+    Duration cacheTtl() {
+        return Duration.ofMinutes(cacheTtlMinutes);
+    }
+
+    /**
+     * Time since the cached weather for {@code key} was loaded; empty when it is not cached.
+     */
+    Optional<Duration> cacheAge(WeatherKey key) {
+        return weatherCache.synchronous().policy().refreshAfterWrite()
+                .flatMap(policy -> policy.ageOf(key));
+    }
+
+    /**
+     * Refresh {@code key} once its data is past the TTL by fetch time. refreshAfterWrite counts
+     * from the load, so without this a row loaded near the end of its TTL would be served as
+     * fresh for almost another full TTL. Past the TTL by load time, refreshAfterWrite has it.
+     */
+    private void refreshIfOutlived(WeatherKey key, ExternalData data) {
+        if (data == null || earlyRefreshes.getIfPresent(key) == data) {
+            return;
+        }
+        Duration ttl = cacheTtl();
+        Optional<Duration> expiresIn = weatherCache.synchronous().policy().expireVariably()
+                .flatMap(policy -> policy.getExpiresAfter(key));
+        Optional<Duration> age = cacheAge(key);
+        if (expiresIn.isPresent() && age.isPresent()
+                && expiresIn.get().compareTo(Duration.ofMinutes(staleMinutes)) <= 0 && age.get().compareTo(ttl) < 0
+                && earlyRefreshes.asMap().put(key, data) != data) {
+            refresh(key);
+        }
+    }
+
+    /**
+     * Reload {@code key} in the background; readers keep getting the current value meanwhile,
+     * and a failed reload keeps it.
+     */
+    CompletableFuture<ExternalData> refresh(WeatherKey key) {
+        return weatherCache.synchronous().refresh(key);
+    }
+
+    /**
+     * Persisted row for the key if it is younger than the TTL; lets a restarted or second
+     * instance reuse what another one fetched.
+     */
+    private Optional<ExternalData> findFresh(WeatherKey key) {
         try {
-            Optional<ExternalData> existing = externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc(intendedSource, city);
+            Optional<ExternalData> existing = externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc(key.source, key.city);
             if (existing.isPresent()) {
                 Instant then = existing.get().getFetchedAt();
                 if (then != null) {
                     Duration age = Duration.between(then, Instant.now());
-                    if (age.toMinutes() <= cacheTtlMinutes) {
+                    if (age.compareTo(cacheTtl()) <= 0) {
                         return existing;
                     }
                 }
             }
         } catch (Exception e) {
             // ignore cache errors and proceed to fetch
-            e.printStackTrace();
+            failures.warn(e, "Could not read stored weather for {}, fetching it instead", key.city);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Newest persisted row for the key whatever its age: the last good answer, served while
+     * the provider is failing.
+     */
+    private Optional<ExternalData> findLatest(WeatherKey key) {
+        try {
+            return externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc(key.source, key.city);
+        } catch (Exception e) {
+            failures.warn(e, "Could not read last known weather for {}", key.city);
+            return Optional.empty();
         }
+    }
 
-        if (openWeatherKey == null || openWeatherKey.isBlank()) {
-            // No OpenWeather key configured: try a keyless approach using Open-Meteo geocoding + current_weather
-            try {
-                ObjectMapper mapper = new ObjectMapper();
-                String geoUrl = "https://geocoding-api.open-meteo.com/v1/search?name=" + URLEncoder.encode(city, StandardCharsets.UTF_8) + "&count=1";
-                ResponseEntity<String> geoResp = restTemplate.getForEntity(geoUrl, String.class);
-                if (geoResp.getStatusCode().is2xxSuccessful() && geoResp.getBody() != null) {
-                    JsonNode geoNode = mapper.readTree(geoResp.getBody());
-                    JsonNode results = geoNode.path("results");
-                    if (results.isArray() && results.size() > 0) {
-                        JsonNode first = results.get(0);
-                        double lat = first.path("latitude").asDouble();
-                        double lon = first.path("longitude").asDouble();
-                        String name = first.path("name").asText(city);
-
-                        String weatherUrl = String.format("https://api.open-meteo.com/v1/forecast?latitude=%s&longitude=%s&current_weather=true", lat, lon);
-                        ResponseEntity<String> weatherResp = restTemplate.getForEntity(weatherUrl, String.class);
-                        if (weatherResp.getStatusCode().is2xxSuccessful() && weatherResp.getBody() != null) {
-                            JsonNode wnode = mapper.readTree(weatherResp.getBody());
-                            JsonNode current = wnode.path("current_weather");
-                            double temp = current.path("temperature").asDouble(Double.NaN);
-                            int weathercode = current.path("weathercode").asInt(-1);
-                            String description = mapWeatherCode(weathercode);
-
-                            ObjectNode out = mapper.createObjectNode();
-                            out.put("name", name);
-                            ObjectNode main = mapper.createObjectNode();
-                            if (!Double.isNaN(temp)) main.put("temp", temp);
-                            out.set("main", main);
-                            ArrayNode weatherArr = mapper.createArrayNode();
-                            ObjectNode wdesc = mapper.createObjectNode();
-                            wdesc.put("description", description);
-                            weatherArr.add(wdesc);
-                            out.set("weather", weatherArr);
-                            out.put("_source", "open-meteo");
-                            out.put("icon", mapWeatherCodeToEmoji(weathercode));
-                            out.put("weathercode", weathercode);
-
-                            String payload = mapper.writeValueAsString(out);
-                            ExternalData data = new ExternalData("open-meteo", city, payload);
-                            externalDataRepository.save(data);
-                            return Optional.of(data);
-                        }
+    /**
+     * Resolve coordinates for the given cities (cached, geocoding only the unknown ones), then
+     * fetch current weather for all of them with one multi-coordinate forecast request.
+     */
+    private CompletableFuture<Map<WeatherKey, ExternalData>> fetchOpenMeteo(List<WeatherKey> keys) {
+        Set<String> cities = keys.stream().map(k -> k.normalized).collect(Collectors.toSet());
+        return geocodeCache.getAll(cities).thenCompose(points -> {
+            List<WeatherKey> located = keys.stream()
+                    .filter(k -> points.containsKey(k.normalized) && points.get(k.normalized) != UNKNOWN_CITY)
+                    .toList();
+            if (located.isEmpty()) {
+                return CompletableFuture.completedFuture(Map.<WeatherKey, ExternalData>of());
+            }
+            String lats = located.stream().map(k -> String.valueOf(points.get(k.normalized).latitude())).collect(Collectors.joining(","));
+            String lons = located.stream().map(k -> String.valueOf(points.get(k.normalized).longitude())).collect(Collectors.joining(","));
+
+            URI weatherUri = URI.create(String.format("%s?latitude=%s&longitude=%s&current_weather=true", forecastUrl, lats, lons));
+            return circuitBreakers.call("open-meteo", http, weatherUri).thenApplyAsync(weatherResp -> {
+                Map<WeatherKey, ExternalData> loaded = new HashMap<>();
+                if (!isOk(weatherResp)) {
+                    return loaded;
+                }
+                // One location comes back as an object, several as an array in request order
+                JsonNode root = readTree(weatherResp.body());
+                List<ExternalData> rows = new ArrayList<>();
+                for (int i = 0; i < located.size(); i++) {
+                    JsonNode forecast = root.isArray() ? root.path(i) : (i == 0 ? root : mapper.missingNode());
+                    JsonNode current = forecast.path("current_weather");
+                    if (current.isMissingNode()) {
+                        continue;
                     }
+
+                    WeatherKey key = located.get(i);
+                    ExternalData data = new ExternalData("open-meteo", key.city, openMeteoPayload(points.get(key.normalized).name(), current));
+                    rows.add(data);
+                    loaded.put(key, data);
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+                externalDataRepository.saveAll(rows);
+                return loaded;
+            }, db);
+        });
+    }
 
-            // Fallback mocked payload if geocoding/current_weather failed
-            String mock = String.format("{\"name\":\"%s\",\"main\":{\"temp\":20.0},\"weather\":[{\"description\":\"clear sky\"}]}", city);
-            ExternalData data = new ExternalData("mock-openweather", city, mock);
-            externalDataRepository.save(data);
-            return Optional.of(data);
+    private String openMeteoPayload(String name, JsonNode current) {
+        double temp = current.path("temperature").asDouble(Double.NaN);
+        int weathercode = current.path("weathercode").asInt(-1);
+        String description = mapWeatherCode(weathercode);
+
+        ObjectNode out = mapper.createObjectNode();
+        out.put("name", name);
+        ObjectNode main = mapper.createObjectNode();
+        if (!Double.isNaN(temp)) {
+            main.put("temp", temp);
         }
-        String url = String.format("https://api.openweathermap.org/data/2.5/weather?q=%s&appid=%s&units=metric", city, openWeatherKey);
-        try {
-            ResponseEntity<String> resp = restTemplate.getForEntity(url, String.class);
-            if (resp.getStatusCode().is2xxSuccessful() && resp.getBody() != null) {
-                // Try to enrich OpenWeather payload with a simple icon mapping
-                try {
-                    ObjectMapper mapper = new ObjectMapper();
-                    JsonNode root = mapper.readTree(resp.getBody());
-                    JsonNode weatherArr = root.path("weather");
-                    String iconEmoji = null;
-                    if (weatherArr.isArray() && weatherArr.size() > 0) {
-                        String iconCode = weatherArr.get(0).path("icon").asText(null);
-                        if (iconCode != null) {
-                            // iconCode like "10d" - map by prefix
-                            iconEmoji = mapOpenWeatherIconToEmoji(iconCode);
-                        }
-                    }
-                    if (iconEmoji != null && root.isObject()) {
-                        ((ObjectNode) root).put("icon", iconEmoji);
+        out.set("main", main);
+        ArrayNode weatherArr = mapper.createArrayNode();
+        ObjectNode wdesc = mapper.createObjectNode();
+        wdesc.put("description", description);
+        weatherArr.add(wdesc);
+        out.set("weather", weatherArr);
+        out.put("_source", "open-meteo");
+        out.put("icon", mapWeatherCodeToEmoji(weathercode));
+        out.put("weathercode", weathercode);
+        return out.toString();
+    }
+
+    /**
+     * Coordinates for a normalized city: from the persisted geocode row if there is one, else
+     * from the geocoding API (then persisted). Completes with {@link #UNKNOWN_CITY} when the
+     * geocoder does not know the city or does not answer with a 2xx.
+     */
+    private CompletableFuture<GeoPoint> geocode(String city) {
+        return db.supply(
+                () -> externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc(GEOCODE_SOURCE, city)
+        ).thenCompose(saved -> {
+            if (saved.isPresent()) {
+                return CompletableFuture.completedFuture(toGeoPoint(readTree(saved.get().getPayload()), city));
+            }
+            URI geoUri = URI.create(geocodingUrl + "?name=" + URLEncoder.encode(city, StandardCharsets.UTF_8) + "&count=1");
+            return circuitBreakers.call(GEOCODE_SOURCE, http, geoUri).thenApplyAsync(geoResp -> {
+                if (!isOk(geoResp)) {
+                    return UNKNOWN_CITY;
+                }
+                JsonNode results = readTree(geoResp.body()).path("results");
+                if (!results.isArray() || results.size() == 0) {
+                    return UNKNOWN_CITY;
+                }
+                GeoPoint point = toGeoPoint(results.get(0), city);
+                ObjectNode row = mapper.createObjectNode()
+                        .put("latitude", point.latitude())
+                        .put("longitude", point.longitude())
+                        .put("name", point.name());
+                externalDataRepository.save(new ExternalData(GEOCODE_SOURCE, city, row.toString()));
+                return point;
+            }, db);
+        });
+    }
+
+    private static GeoPoint toGeoPoint(JsonNode node, String city) {
+        return new GeoPoint(node.path("latitude").asDouble(), node.path("longitude").asDouble(), node.path("name").asText(city));
+    }
+
+    private CompletableFuture<Optional<ExternalData>> fetchOpenWeather(String city) {
+        URI uri = URI.create(String.format("%s?q=%s&appid=%s&units=metric",
+                openWeatherUrl, URLEncoder.encode(city, StandardCharsets.UTF_8), openWeatherKey));
+        return circuitBreakers.call("openweather", http, uri).thenApplyAsync(resp -> {
+            if (resp.statusCode() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                // rate limit - allow the global handler to convert to 429 for the client
+                throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests",
+                        HttpHeaders.EMPTY, null, StandardCharsets.UTF_8);
+            }
+            if (!isOk(resp)) {
+                return Optional.<ExternalData>empty();
+            }
+            // Try to enrich OpenWeather payload with a simple icon mapping
+            try {
+                JsonNode root = mapper.readTree(resp.body());
+                JsonNode weatherArr = root.path("weather");
+                String iconEmoji = null;
+                if (weatherArr.isArray() && weatherArr.size() > 0) {
+                    String iconCode = weatherArr.get(0).path("icon").asText(null);
+                    if (iconCode != null) {
+                        // iconCode like "10d" - map by prefix
+                        iconEmoji = mapOpenWeatherIconToEmoji(iconCode);
                     }
-                    String enriched = mapper.writeValueAsString(root);
-                    ExternalData data = new ExternalData("openweather", city, enriched);
-                    externalDataRepository.save(data);
-                    return Optional.of(data);
-                } catch (Exception e) {
-                    // if enrichment fails, persist raw body
-                    ExternalData data = new ExternalData("openweather", city, resp.getBody());
-                    externalDataRepository.save(data);
-                    return Optional.of(data);
                 }
+                if (iconEmoji != null && root.isObject()) {
+                    ((ObjectNode) root).put("icon", iconEmoji);
+                }
+                String enriched = mapper.writeValueAsString(root);
+                ExternalData data = new ExternalData("openweather", city, enriched);
+                externalDataRepository.save(data);
+                return Optional.of(data);
+            } catch (Exception e) {
+                // if enrichment fails, persist raw body
+                ExternalData data = new ExternalData("openweather", city, resp.body());
+                externalDataRepository.save(data);
+                return Optional.of(data);
+            }
+        }, db).exceptionally(ex -> {
+            Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            if (cause instanceof HttpClientErrorException.TooManyRequests tre) {
+                throw tre;
             }
-        } catch (HttpClientErrorException.TooManyRequests tre) {
-            // rate limit - allow the global handler to convert to 429 for the client
-            throw tre;
-        } catch (Exception ex) {
-            // log and swallow
-            ex.printStackTrace();
+            // Timeouts, 5xx and open circuits are counted by the breaker; the loader falls back
+            failures.warn(cause, "OpenWeather fetch failed for {}", city);
+            return Optional.empty();
+        });
+    }
+
+    private static boolean isOk(HttpResponse<String> resp) {
+        return resp.statusCode() >= 200 && resp.statusCode() < 300 && resp.body() != null;
+    }
+
+    private JsonNode readTree(String body) {
+        try {
+            return mapper.readTree(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
-        return Optional.empty();
     }
 
     public Optional<ExternalData> getLatest(String source, String key) {
@@ -161,27 +687,53 @@ public class ExternalApiService {
 
     // Simple mapper from Open-Meteo weathercode to a human readable description
     private String mapWeatherCode(int code) {
-        if (code == 0) return "clear sky";
-        if (code == 1 || code == 2 || code == 3) return "partly cloudy";
-        if (code == 45 || code == 48) return "fog";
-        if (code >= 51 && code <= 67) return "rain";
-        if ((code >= 71 && code <= 77) || (code >= 85 && code <= 86)) return "snow";
-        if (code >= 80 && code <= 82) return "showers";
+        if (code == 0) {
+            return "clear sky";
+        }
+        if (code == 1 || code == 2 || code == 3) {
+            return "partly cloudy";
+        }
+        if (code == 45 || code == 48) {
+            return "fog";
+        }
+        if (code >= 51 && code <= 67) {
+            return "rain";
+        }
+        if ((code >= 71 && code <= 77) || (code >= 85 && code <= 86)) {
+            return "snow";
+        }
+        if (code >= 80 && code <= 82) {
+            return "showers";
+        }
         return "unknown";
     }
 
     private String mapWeatherCodeToEmoji(int code) {
-        if (code == 0) return "☀️";
-        if (code == 1 || code == 2 || code == 3) return "⛅";
-        if (code == 45 || code == 48) return "🌫️";
-        if (code >= 51 && code <= 67) return "🌧️";
-        if ((code >= 71 && code <= 77) || (code >= 85 && code <= 86)) return "❄️";
-        if (code >= 80 && code <= 82) return "🌦️";
+        if (code == 0) {
+            return "☀️";
+        }
+        if (code == 1 || code == 2 || code == 3) {
+            return "⛅";
+        }
+        if (code == 45 || code == 48) {
+            return "🌫️";
+        }
+        if (code >= 51 && code <= 67) {
+            return "🌧️";
+        }
+        if ((code >= 71 && code <= 77) || (code >= 85 && code <= 86)) {
+            return "❄️";
+        }
+        if (code >= 80 && code <= 82) {
+            return "🌦️";
+        }
         return "❓";
     }
 
     private String mapOpenWeatherIconToEmoji(String iconCode) {
-        if (iconCode == null || iconCode.length() < 2) return null;
+        if (iconCode == null || iconCode.length() < 2) {
+            return null;
+        }
         String prefix = iconCode.substring(0, 2);
         switch (prefix) {
             case "01": return "☀️"; // clear
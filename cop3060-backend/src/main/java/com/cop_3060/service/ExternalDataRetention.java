@@ -0,0 +1,60 @@
+package com.cop_3060.service;
+
+import com.cop_3060.repository.ExternalDataRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps external_data from growing without bound.
+ *
+ * Every fetch appends a snapshot; this job keeps only the newest N snapshots per
+ * (source, keyName) and deletes the rest in small batches, each in its own short
+ * transaction, so it never holds long locks on the table.
+ */
+@Component
+public class ExternalDataRetention {
+
+    private final ExternalDataRepository externalDataRepository;
+    private final int keepPerKey;
+    private final int batchSize;
+
+    public ExternalDataRetention(ExternalDataRepository externalDataRepository,
+                                 @Value("${external.retention.keep-per-key:20}") int keepPerKey,
+                                 @Value("${external.retention.batch-size:500}") int batchSize) {
+        this.externalDataRepository = externalDataRepository;
+        this.keepPerKey = Math.max(1, keepPerKey);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * Delete all but the newest snapshots of every key.
+     *
+     * @return number of rows deleted
+     */
+    @Scheduled(fixedDelayString = "${external.retention.interval:PT1H}",
+            initialDelayString = "${external.retention.interval:PT1H}")
+    public int prune() {
+        int deleted = 0;
+        for (Object[] key : externalDataRepository.findKeysWithMoreThan(keepPerKey)) {
+            deleted += prune((String) key[0], (String) key[1]);
+        }
+        return deleted;
+    }
+
+    private int prune(String source, String keyName) {
+        List<Long> keep = externalDataRepository.findIdsNewestFirst(source, keyName, PageRequest.of(0, keepPerKey));
+        int deleted = 0;
+        List<Long> batch;
+        do {
+            batch = externalDataRepository.findIdsExcept(source, keyName, keep, PageRequest.of(0, batchSize));
+            if (!batch.isEmpty()) {
+                deleted += externalDataRepository.deleteByIdIn(batch);
+            }
+        } while (batch.size() == batchSize);
+        return deleted;
+    }
+}
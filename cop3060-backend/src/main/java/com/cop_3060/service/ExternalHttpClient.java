@@ -0,0 +1,216 @@
+package com.cop_3060.service;
+
+import com.cop_3060.config.ExternalHttpProperties;
+import com.cop_3060.config.VirtualThreads;
+import com.cop_3060.exception.UpstreamUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared outbound HTTP client for third-party APIs.
+ *
+ * One JDK {@link HttpClient} keeps connections alive and reuses them across requests.
+ * Every call has a per-host response timeout, and per-host slots cap how many calls may be
+ * in flight at once. When a host is slow, further calls queue for a slot without holding any
+ * thread: a freed slot is handed to the oldest waiter, and a waiter still queued after the
+ * acquire timeout fails fast instead of piling up on the upstream.
+ *
+ * Callbacks on the returned futures run on the client's io-threads, which also hand slots
+ * on; they must not block (repository work belongs on a separate executor).
+ *
+ * With spring.threads.virtual.enabled (Java 21+) the client's callbacks run on virtual
+ * threads instead of the fixed io-threads pool; the per-host slots still bound concurrency.
+ *
+ * Every call that gets a slot is timed as {@code external.http.requests}, tagged with the host
+ * and the response status (or the exception's simple name when there was no response).
+ */
+@Component
+@EnableConfigurationProperties(ExternalHttpProperties.class)
+public class ExternalHttpClient {
+
+    private final ExternalHttpProperties properties;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Map<String, HostSlots> permits = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public ExternalHttpClient(ExternalHttpProperties properties) {
+        this(properties, false, Metrics.globalRegistry);
+    }
+
+    @Autowired
+    public ExternalHttpClient(ExternalHttpProperties properties,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.executor = (virtualThreads ? VirtualThreads.newPerTaskExecutor("external-http-") : Optional.<ExecutorService>empty())
+                .orElseGet(() -> {
+                    AtomicInteger threads = new AtomicInteger();
+                    return Executors.newFixedThreadPool(properties.ioThreads(), r -> {
+                        Thread t = new Thread(r, "external-http-" + threads.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+                });
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(properties.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * GET {@code uri} and return the response body as a string, whatever the status.
+     * Completes exceptionally with {@link UpstreamUnavailableException} when no slot for the
+     * host frees up in time, or with the underlying I/O error (e.g. HttpTimeoutException).
+     */
+    public CompletableFuture<HttpResponse<String>> getAsync(URI uri) {
+        String host = uri.getHost();
+        HostSlots slots = permits.computeIfAbsent(host, h -> new HostSlots(properties.maxConcurrentFor(h)));
+        return slots.acquire(properties.acquireTimeout())
+                .<Void>exceptionally(ex -> {
+                    throw new UpstreamUnavailableException("Too many concurrent requests to " + host);
+                })
+                .thenCompose(permit -> send(uri, host, slots));
+    }
+
+    private CompletableFuture<HttpResponse<String>> send(URI uri, String host, HostSlots slots) {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(properties.readTimeoutFor(host))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((resp, ex) -> {
+                        slots.release();
+                        sample.stop(Timer.builder("external.http.requests")
+                                .description("Outbound HTTP calls to third-party APIs")
+                                .tag("host", host)
+                                .tag("status", resp != null ? String.valueOf(resp.statusCode()) : failureName(ex))
+                                .register(meterRegistry));
+                    });
+        } catch (RuntimeException e) {
+            slots.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static String failureName(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        return cause.getClass().getSimpleName();
+    }
+
+    /**
+     * Blocking form of {@link #getAsync(URI)}; failures are rethrown unwrapped.
+     */
+    public HttpResponse<String> get(URI uri) throws Exception {
+        try {
+            return getAsync(uri).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    /**
+     * The client's own small pool, for short non-blocking callbacks that should stay off
+     * request threads. Blocking work (e.g. repository calls) goes to a DatabaseExecutor.
+     */
+    public Executor executor() {
+        return executor;
+    }
+
+    /**
+     * Free slots for a host right now, mainly for diagnostics and tests.
+     */
+    public int availableSlots(String host) {
+        HostSlots slots = permits.get(host);
+        return slots == null ? properties.maxConcurrentFor(host) : slots.available();
+    }
+
+    /**
+     * Counting slots whose waiters are futures rather than parked threads. Waiters are
+     * completed outside the lock, since completing one runs its send on the releasing thread.
+     */
+    private static final class HostSlots {
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int available;
+
+        HostSlots(int max) {
+            this.available = max;
+        }
+
+        CompletableFuture<Void> acquire(Duration timeout) {
+            CompletableFuture<Void> waiter;
+            synchronized (this) {
+                if (available > 0) {
+                    available--;
+                    return CompletableFuture.completedFuture(null);
+                }
+                waiter = new CompletableFuture<>();
+                waiters.add(waiter);
+            }
+            waiter.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .whenComplete((ok, ex) -> {
+                        if (ex != null) {
+                            synchronized (this) {
+                                waiters.remove(waiter);
+                            }
+                        }
+                    });
+            return waiter;
+        }
+
+        void release() {
+            while (true) {
+                CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = waiters.poll();
+                    if (next == null) {
+                        available++;
+                        return;
+                    }
+                }
+                // False when the waiter timed out meanwhile: hand the slot to the next one
+                if (next.complete(null)) {
+                    return;
+                }
+            }
+        }
+
+        synchronized int available() {
+            return available;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
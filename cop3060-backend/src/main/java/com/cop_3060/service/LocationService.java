@@ -1,5 +1,6 @@
 package com.cop_3060.service;
 
+import com.cop_3060.config.CacheConfig;
 import com.cop_3060.dto.LocationDto;
 import com.cop_3060.dto.CreateLocationRequest;
 import com.cop_3060.dto.UpdateLocationRequest;
@@ -9,9 +10,17 @@ import com.cop_3060.exception.NotFoundException;
 import com.cop_3060.repository.LocationRepository;
 import com.cop_3060.repository.ResourceRepository;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
@@ -23,6 +32,8 @@ import java.util.stream.Collectors;
 @Service
 public class LocationService {
 
+    private static final Logger log = LoggerFactory.getLogger(LocationService.class);
+
     private final LocationRepository locationRepository;
     private final ResourceRepository resourceRepository;
 
@@ -33,7 +44,7 @@ public class LocationService {
 
     @PostConstruct
     public void logStartup() {
-        System.out.println("LocationService initialized with " + locationRepository.count() + " locations.");
+        log.info("LocationService initialized with {} locations", locationRepository.count());
     }
 
     public LocationDto create(CreateLocationRequest req) {
@@ -43,7 +54,7 @@ public class LocationService {
     }
 
     public Map<String, Object> findAll(int page, int size, String sort) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "building"));
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "building", "id"));
         Page<Location> result = locationRepository.findAll(pageable);
 
         List<LocationDto> content = result.getContent()
@@ -60,12 +71,42 @@ public class LocationService {
         return envelope;
     }
 
+    /**
+     * Keyset (seek) variant of {@link #findAll}: continues after {@code cursor} ordered by
+     * (building, id) and skips the count query, so deep pages cost the same as the first.
+     */
+    public Map<String, Object> findAllKeyset(String cursor, int size) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Location> result = after == null
+                ? locationRepository.findKeysetFirst(limit)
+                : locationRepository.findKeysetAfter(after.key(), after.id(), limit);
+
+        List<Location> rows = result.getContent();
+        String nextCursor = null;
+        if (result.hasNext() && !rows.isEmpty()) {
+            Location last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.getBuilding(), last.getId()).encode();
+        }
+
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("content", rows.stream().map(this::toDto).collect(Collectors.toList()));
+        envelope.put("size", size);
+        envelope.put("hasNext", result.hasNext());
+        envelope.put("nextCursor", nextCursor);
+        return envelope;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.LOCATIONS, key = "#id")
     public LocationDto findById(Long id) {
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Location " + id + " not found"));
         return toDto(location);
     }
 
+    // resources embed a copy of this location, so cached resources are dropped too
+    @Caching(put = @CachePut(cacheNames = CacheConfig.LOCATIONS, key = "#id"),
+            evict = @CacheEvict(cacheNames = CacheConfig.RESOURCES, allEntries = true))
     public LocationDto update(Long id, UpdateLocationRequest req) {
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Location " + id + " not found"));
@@ -75,6 +116,7 @@ public class LocationService {
         return toDto(updated);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.LOCATIONS, key = "#id")
     public void delete(Long id) {
         Location location = locationRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Location " + id + " not found"));
@@ -84,7 +126,12 @@ public class LocationService {
             throw new ConflictException("Location " + id + " is in use by " + count + " resources");
         }
 
-        locationRepository.deleteById(id);
+        // a resource created after the count still holds the foreign key, so the delete fails
+        try {
+            locationRepository.deleteById(id);
+        } catch (DataIntegrityViolationException e) {
+            throw new ConflictException("Location " + id + " is in use by resources", e);
+        }
     }
 
     public boolean exists(Long id) {
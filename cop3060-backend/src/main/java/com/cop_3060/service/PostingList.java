@@ -0,0 +1,195 @@
+package com.cop_3060.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.LongPredicate;
+
+/**
+ * Immutable sorted set of resource ids: the postings of one term or prefix in
+ * {@link ResourceSearchIndex}.
+ *
+ * Ids are kept in a sorted base array plus two small sorted deltas, the ids added since and the
+ * base ids removed since. A write copies only the deltas, and once they outgrow about sqrt(base)
+ * ids they are merged into a new base, so a write costs O(sqrt n) amortized instead of a copy of
+ * the whole list. Reads walk the arrays through a {@link Cursor} without materializing anything.
+ */
+final class PostingList {
+
+    /** Returned by {@link Cursor#seek} once a cursor is exhausted. */
+    static final long END = Long.MAX_VALUE;
+
+    private static final long[] NONE = new long[0];
+    private static final int MIN_DELTA = 64;
+
+    static final PostingList EMPTY = new PostingList(NONE, NONE, NONE);
+
+    private final long[] base;
+    private final long[] added;
+    private final long[] removed;
+
+    private PostingList(long[] base, long[] added, long[] removed) {
+        this.base = base;
+        this.added = added;
+        this.removed = removed;
+    }
+
+    /**
+     * Walks ids in ascending order.
+     */
+    interface Cursor {
+        /** The smallest id at or after {@code target}, or {@link #END}. Targets must not decrease. */
+        long seek(long target);
+    }
+
+    /** A list of {@code ids}, which must be sorted and distinct. */
+    static PostingList of(long[] ids) {
+        return ids.length == 0 ? EMPTY : new PostingList(ids, NONE, NONE);
+    }
+
+    int size() {
+        return base.length + added.length - removed.length;
+    }
+
+    /** This list plus {@code ids} (sorted, distinct); ids already present are ignored. */
+    PostingList withAll(long[] ids) {
+        long[] reinstated = filter(ids, id -> Arrays.binarySearch(removed, id) >= 0);
+        long[] fresh = filter(ids, id -> Arrays.binarySearch(base, id) < 0 && Arrays.binarySearch(added, id) < 0);
+        return next(base, union(added, fresh), subtract(removed, reinstated));
+    }
+
+    /** This list minus {@code ids} (sorted, distinct); ids not present are ignored. */
+    PostingList withoutAll(long[] ids) {
+        long[] dropped = filter(ids, id -> Arrays.binarySearch(added, id) >= 0);
+        long[] hidden = filter(ids, id -> Arrays.binarySearch(base, id) >= 0 && Arrays.binarySearch(removed, id) < 0);
+        return next(base, subtract(added, dropped), union(removed, hidden));
+    }
+
+    Cursor cursor() {
+        if (added.length == 0 && removed.length == 0) {
+            return new ArrayCursor(base);
+        }
+        ArrayCursor inBase = new ArrayCursor(base);
+        ArrayCursor inAdded = new ArrayCursor(added);
+        ArrayCursor inRemoved = new ArrayCursor(removed);
+        return target -> {
+            long id = inBase.seek(target);
+            while (id != END && inRemoved.seek(id) == id) {
+                id = inBase.seek(id + 1);
+            }
+            return Math.min(id, inAdded.seek(target));
+        };
+    }
+
+    /** Ids found in any of {@code cursors}, each once, merged lazily through a heap. */
+    static Cursor union(List<Cursor> cursors) {
+        PriorityQueue<Head> heads = new PriorityQueue<>(cursors.size());
+        for (Cursor cursor : cursors) {
+            Head head = new Head(cursor);
+            if (head.id != END) {
+                heads.add(head);
+            }
+        }
+        return target -> {
+            while (!heads.isEmpty() && heads.peek().id < target) {
+                Head head = heads.poll();
+                head.id = head.cursor.seek(target);
+                if (head.id != END) {
+                    heads.add(head);
+                }
+            }
+            return heads.isEmpty() ? END : heads.peek().id;
+        };
+    }
+
+    private static final class Head implements Comparable<Head> {
+        private final Cursor cursor;
+        private long id;
+
+        Head(Cursor cursor) {
+            this.cursor = cursor;
+            this.id = cursor.seek(Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Head other) {
+            return Long.compare(id, other.id);
+        }
+    }
+
+    private static final class ArrayCursor implements Cursor {
+        private final long[] ids;
+        private int at;
+
+        ArrayCursor(long[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public long seek(long target) {
+            // gallop forward from the current position, then binary search the last step
+            int step = 1;
+            int low = at;
+            while (at < ids.length && ids[at] < target) {
+                low = at + 1;
+                at = Math.min(at + step, ids.length);
+                step <<= 1;
+            }
+            if (low < at) {
+                int found = Arrays.binarySearch(ids, low, at, target);
+                at = found >= 0 ? found : -found - 1;
+            }
+            return at < ids.length ? ids[at] : END;
+        }
+    }
+
+    private static PostingList next(long[] base, long[] added, long[] removed) {
+        if (added.length + removed.length <= Math.max(MIN_DELTA, (int) Math.sqrt(base.length))) {
+            return base.length == 0 && added.length == 0 ? EMPTY : new PostingList(base, added, removed);
+        }
+        return of(union(subtract(base, removed), added));
+    }
+
+    private static long[] filter(long[] ids, LongPredicate keep) {
+        return Arrays.stream(ids).filter(keep).toArray();
+    }
+
+    private static long[] union(long[] a, long[] b) {
+        if (b.length == 0) {
+            return a;
+        }
+        if (a.length == 0) {
+            return b;
+        }
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length || j < b.length) {
+            if (j >= b.length || (i < a.length && a[i] < b[j])) {
+                out[n++] = a[i++];
+            } else if (i >= a.length || b[j] < a[i]) {
+                out[n++] = b[j++];
+            } else {
+                out[n++] = a[i++];
+                j++;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static long[] subtract(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return a;
+        }
+        long[] out = new long[a.length];
+        int j = 0, n = 0;
+        for (long id : a) {
+            while (j < b.length && b[j] < id) {
+                j++;
+            }
+            if (j >= b.length || b[j] != id) {
+                out[n++] = id;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
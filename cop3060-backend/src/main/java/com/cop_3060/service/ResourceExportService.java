@@ -0,0 +1,123 @@
+package com.cop_3060.service;
+
+import com.cop_3060.dto.ResourceRow;
+import com.cop_3060.exception.UnsupportedFormatException;
+import com.cop_3060.repository.ResourceRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes the full resource catalog to an output stream as NDJSON or CSV.
+ * Rows are streamed from the database and written one at a time, so memory use
+ * does not depend on catalog size.
+ */
+@Service
+public class ResourceExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final int FLUSH_EVERY = 1000;
+    private static final String CSV_HEADER =
+            "id,name,description,locationId,building,room,categoryId,categoryName,categoryDescription";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final ResourceRepository resourceRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+
+    public ResourceExportService(ResourceRepository resourceRepository,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.resourceRepository = resourceRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Parse the {@code format} request parameter: "csv" or "ndjson", NDJSON when absent.
+     */
+    public static Format parseFormat(String format) {
+        if (format == null || format.isBlank() || "ndjson".equalsIgnoreCase(format)) {
+            return Format.NDJSON;
+        }
+        if ("csv".equalsIgnoreCase(format)) {
+            return Format.CSV;
+        }
+        throw new UnsupportedFormatException("Unsupported export format: " + format + " (expected csv or ndjson)");
+    }
+
+    /**
+     * Stream every resource to {@code out}. Returns the number of rows written.
+     */
+    public long export(Format format, OutputStream out) {
+        Long written = readOnlyTx.execute(status -> {
+            try (Stream<ResourceRow> rows = resourceRepository.streamAllRows()) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                long count = 0;
+                if (format == Format.CSV) {
+                    writer.write(CSV_HEADER);
+                    writer.write('\n');
+                }
+                Iterator<ResourceRow> it = rows.iterator();
+                while (it.hasNext()) {
+                    ResourceRow row = it.next();
+                    if (format == Format.CSV) {
+                        writeCsv(writer, row);
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row.toDto()));
+                        writer.write('\n');
+                    }
+                    if (++count % FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                }
+                writer.flush();
+                return count;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return written == null ? 0 : written;
+    }
+
+    private void writeCsv(Writer writer, ResourceRow row) throws IOException {
+        writer.write(String.join(",",
+                String.valueOf(row.id()),
+                csv(row.name()),
+                csv(row.description()),
+                String.valueOf(row.locationId()),
+                csv(row.building()),
+                csv(row.room()),
+                String.valueOf(row.categoryId()),
+                csv(row.categoryName()),
+                csv(row.categoryDescription())));
+        writer.write('\n');
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            // a leading '=', '+', '-', '@', tab or CR makes spreadsheets evaluate the cell
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
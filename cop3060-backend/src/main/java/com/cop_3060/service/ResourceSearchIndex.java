@@ -0,0 +1,424 @@
+package com.cop_3060.service;
+
+import com.cop_3060.dto.ResourceSearchRow;
+import com.cop_3060.repository.ResourceRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
+
+/**
+ * In-process inverted index over resource names and descriptions.
+ *
+ * Every word of a resource is stored as a term pointing at the sorted ids of the resources that
+ * contain it, and every one- and two-letter word prefix has postings of its own. A query matches a
+ * resource when every query word is a prefix of one of its words (name or description). Short
+ * query words read their prefix postings directly; longer ones merge the postings of the few
+ * terms they prefix. The per-word lists are then intersected lazily, without materializing them,
+ * so a lookup costs the size of the matching postings instead of a full scan of the resources
+ * table. Matches are ranked with name hits first, then by name, and only the best
+ * {@code (page + 1) * size} are kept while ranking.
+ *
+ * The index is loaded once the application is ready and kept current by {@link ResourceService}
+ * on create/update/delete. Until loading finishes, {@link #isReady()} is false and
+ * {@link #search} scans the resources table instead, applying the same word-prefix matching and
+ * ranking so results do not change once the index is ready. A rebuild loads into a new index
+ * while the current one keeps serving; writes made meanwhile go to both and are replayed onto
+ * the new one before it is swapped in.
+ */
+@Component
+public class ResourceSearchIndex {
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int PREFIX_LENGTH = 2;
+
+    private final ResourceRepository resourceRepository;
+
+    private final Object rebuildLock = new Object();
+    private volatile Index index = new Index();
+    private volatile boolean ready;
+    /** Writes made while a rebuild is loading, replayed onto the new index; null otherwise. */
+    private List<Consumer<Index>> pending;
+
+    public ResourceSearchIndex(ResourceRepository resourceRepository) {
+        this.resourceRepository = resourceRepository;
+    }
+
+    private record Document(String sortKey, String[] nameTerms, Set<String> terms) {}
+
+    private record Match(long id, int rank, String sortKey) {}
+
+    private static final Comparator<Match> BY_RANK = Comparator.comparingInt(Match::rank)
+            .thenComparing(Match::sortKey)
+            .thenComparingLong(Match::id);
+
+    /**
+     * One page of ranked search results.
+     */
+    public record Hits(List<Long> ids, long total) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            Index loaded;
+            try {
+                loaded = load();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                pending.forEach(write -> write.accept(loaded));
+                pending = null;
+                index = loaded;
+                ready = true;
+            }
+        }
+    }
+
+    private Index load() {
+        Map<String, LongStream.Builder> terms = new HashMap<>();
+        Map<String, LongStream.Builder> prefixes = new HashMap<>();
+        Index loaded = new Index();
+
+        // rows arrive in id order, so every builder receives its ids sorted and distinct
+        long lastId = 0L;
+        List<ResourceSearchRow> batch;
+        do {
+            batch = resourceRepository.findSearchRowsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ResourceSearchRow row : batch) {
+                Document doc = document(row);
+                loaded.documents.put(row.id(), doc);
+                for (String term : doc.terms()) {
+                    terms.computeIfAbsent(term, t -> LongStream.builder()).add(row.id());
+                }
+                for (String prefix : prefixes(doc.terms())) {
+                    prefixes.computeIfAbsent(prefix, p -> LongStream.builder()).add(row.id());
+                }
+                lastId = row.id();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        terms.forEach((term, ids) -> loaded.terms.put(term, PostingList.of(ids.build().toArray())));
+        prefixes.forEach((prefix, ids) -> loaded.prefixes.put(prefix, PostingList.of(ids.build().toArray())));
+        return loaded;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return index.documents.size();
+    }
+
+    /**
+     * Add or replace the indexed text of a resource.
+     */
+    public void put(Long id, String name, String description) {
+        putAll(List.of(new ResourceSearchRow(id, name, description)));
+    }
+
+    /**
+     * Add or replace many resources at once. Each term's postings are updated once per call
+     * rather than once per resource, which matters for common words in bulk loads.
+     */
+    public synchronized void putAll(List<ResourceSearchRow> rows) {
+        List<ResourceSearchRow> copy = List.copyOf(rows);
+        write(i -> i.write(copy, List.of()));
+    }
+
+    public synchronized void remove(Long id) {
+        write(i -> i.write(List.of(), List.of(id)));
+    }
+
+    private void write(Consumer<Index> write) {
+        write.accept(index);
+        if (pending != null) {
+            pending.add(write);
+        }
+    }
+
+    /**
+     * Return the requested page of resources matching every word of {@code query}.
+     * Served from the index once it is ready, and by scanning the table before that.
+     */
+    public Hits search(String query, int page, int size) {
+        List<String> tokens = new ArrayList<>(tokenize(query));
+        if (tokens.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+        TopMatches top = new TopMatches(page, size);
+        if (ready) {
+            searchIndex(tokens, top);
+        } else {
+            searchTable(tokens, top);
+        }
+        return top.hits();
+    }
+
+    private void searchIndex(List<String> tokens, TopMatches top) {
+        Index current = index;
+        List<Candidates> words = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Candidates candidates = current.candidates(token);
+            if (candidates == null) {
+                return;
+            }
+            words.add(candidates);
+        }
+        // drive the intersection from the most selective word
+        words.sort(Comparator.comparingLong(Candidates::size));
+
+        long next = 0L;
+        while (true) {
+            long id = words.get(0).cursor().seek(next);
+            if (id == PostingList.END) {
+                return;
+            }
+            long agreed = id;
+            for (int w = 1; w < words.size() && agreed == id; w++) {
+                agreed = words.get(w).cursor().seek(id);
+            }
+            if (agreed != id) {
+                next = agreed;
+                continue;
+            }
+            Document doc = current.documents.get(id);
+            if (doc != null) { // null when removed while we were reading
+                top.offer(id, rank(tokens, doc.nameTerms()), doc.sortKey());
+            }
+            next = id + 1;
+        }
+    }
+
+    private void searchTable(List<String> tokens, TopMatches top) {
+        long lastId = 0L;
+        List<ResourceSearchRow> batch;
+        do {
+            batch = resourceRepository.findSearchRowsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (ResourceSearchRow row : batch) {
+                Document doc = document(row);
+                if (tokens.stream().allMatch(t -> hasPrefix(doc.terms(), t))) {
+                    top.offer(row.id(), rank(tokens, doc.nameTerms()), doc.sortKey());
+                }
+                lastId = row.id();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+    }
+
+    private static int rank(List<String> tokens, String[] nameTerms) {
+        for (String token : tokens) {
+            if (!hasPrefix(nameTerms, token)) {
+                return 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Keeps the best {@code (page + 1) * size} matches in a bounded max-heap, so ranking
+     * costs O(m log k) time and O(k) memory for m matches rather than sorting all of them.
+     */
+    private static final class TopMatches {
+
+        private final long skip;
+        private final int limit;
+        private final PriorityQueue<Match> heap;
+        private long total;
+
+        TopMatches(int page, int size) {
+            this.skip = (long) page * size;
+            this.limit = (int) Math.min(skip + size, Integer.MAX_VALUE);
+            this.heap = new PriorityQueue<>(Math.min(limit, 1024) + 1, BY_RANK.reversed());
+        }
+
+        void offer(long id, int rank, String sortKey) {
+            total++;
+            if (limit == 0) {
+                return;
+            }
+            if (heap.size() == limit && !better(id, rank, sortKey, heap.peek())) {
+                return;
+            }
+            if (heap.size() == limit) {
+                heap.poll();
+            }
+            heap.add(new Match(id, rank, sortKey));
+        }
+
+        private static boolean better(long id, int rank, String sortKey, Match worst) {
+            if (rank != worst.rank()) {
+                return rank < worst.rank();
+            }
+            int bySortKey = sortKey.compareTo(worst.sortKey());
+            return bySortKey != 0 ? bySortKey < 0 : id < worst.id();
+        }
+
+        Hits hits() {
+            List<Match> best = new ArrayList<>(heap);
+            best.sort(BY_RANK);
+            int from = (int) Math.min(skip, best.size());
+            List<Long> ids = best.subList(from, best.size()).stream().map(Match::id).toList();
+            return new Hits(ids, total);
+        }
+    }
+
+    private static boolean hasPrefix(String[] terms, String prefix) {
+        for (String term : terms) {
+            if (term.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasPrefix(Set<String> terms, String prefix) {
+        for (String term : terms) {
+            if (term.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static Document document(ResourceSearchRow row) {
+        Set<String> nameTerms = tokenize(row.name());
+        Set<String> terms = new LinkedHashSet<>(nameTerms);
+        terms.addAll(tokenize(row.description()));
+        String sortKey = row.name() == null ? "" : row.name().toLowerCase(Locale.ROOT);
+        return new Document(sortKey, nameTerms.toArray(String[]::new), terms);
+    }
+
+    private static Set<String> prefixes(Set<String> terms) {
+        Set<String> prefixes = new HashSet<>();
+        for (String term : terms) {
+            for (int n = 1; n <= Math.min(PREFIX_LENGTH, term.length()); n++) {
+                prefixes.add(term.substring(0, n));
+            }
+        }
+        return prefixes;
+    }
+
+    /** Ids matching one query word, and how many there are at most. */
+    private record Candidates(long size, PostingList.Cursor cursor) {}
+
+    /**
+     * Postings by term and by short prefix, plus the indexed documents. {@link #rebuild} loads a
+     * new one and swaps it in. Writers are serialized by the enclosing index; readers take no lock.
+     */
+    private static final class Index {
+
+        private final ConcurrentSkipListMap<String, PostingList> terms = new ConcurrentSkipListMap<>();
+        private final Map<String, PostingList> prefixes = new ConcurrentHashMap<>();
+        private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+        /** Candidates for one query word, or null when nothing matches it. */
+        Candidates candidates(String token) {
+            if (token.length() <= PREFIX_LENGTH) {
+                PostingList ids = prefixes.get(token);
+                return ids == null ? null : new Candidates(ids.size(), ids.cursor());
+            }
+            Collection<PostingList> matching = terms.subMap(token, true, token + Character.MAX_VALUE, false).values();
+            if (matching.isEmpty()) {
+                return null;
+            }
+            if (matching.size() == 1) {
+                PostingList ids = matching.iterator().next();
+                return new Candidates(ids.size(), ids.cursor());
+            }
+            long size = 0;
+            List<PostingList.Cursor> cursors = new ArrayList<>(matching.size());
+            for (PostingList ids : matching) {
+                size += ids.size();
+                cursors.add(ids.cursor());
+            }
+            return new Candidates(size, PostingList.union(cursors));
+        }
+
+        void write(List<ResourceSearchRow> rows, List<Long> deletes) {
+            Map<String, List<Long>> termsOut = new HashMap<>();
+            Map<String, List<Long>> prefixesOut = new HashMap<>();
+            Map<String, List<Long>> termsIn = new HashMap<>();
+            Map<String, List<Long>> prefixesIn = new HashMap<>();
+
+            Map<Long, ResourceSearchRow> latest = new LinkedHashMap<>();
+            rows.forEach(row -> latest.put(row.id(), row));
+            Set<Long> ids = new LinkedHashSet<>(deletes);
+            ids.addAll(latest.keySet());
+            for (Long id : ids) {
+                ResourceSearchRow row = latest.get(id);
+                Document doc = row == null ? null : document(row);
+                Document previous = doc == null ? documents.remove(id) : documents.put(id, doc);
+                // only keys the resource gains or loses change; unchanged words keep their postings
+                Set<String> before = previous == null ? Set.of() : previous.terms();
+                Set<String> after = doc == null ? Set.of() : doc.terms();
+                collect(termsOut, before, after, id);
+                collect(termsIn, after, before, id);
+                collect(prefixesOut, prefixes(before), prefixes(after), id);
+                collect(prefixesIn, prefixes(after), prefixes(before), id);
+            }
+            apply(terms, termsOut, termsIn);
+            apply(prefixes, prefixesOut, prefixesIn);
+        }
+
+        private static void collect(Map<String, List<Long>> changes, Set<String> keys, Set<String> except, Long id) {
+            for (String key : keys) {
+                if (!except.contains(key)) {
+                    changes.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+                }
+            }
+        }
+
+        private static void apply(Map<String, PostingList> postings,
+                                  Map<String, List<Long>> out, Map<String, List<Long>> in) {
+            out.forEach((key, ids) -> postings.computeIfPresent(key, (k, list) -> {
+                PostingList left = list.withoutAll(sorted(ids));
+                return left.size() == 0 ? null : left;
+            }));
+            in.forEach((key, ids) -> {
+                long[] added = sorted(ids);
+                postings.merge(key, PostingList.of(added), (list, fresh) -> list.withAll(added));
+            });
+        }
+
+        private static long[] sorted(List<Long> ids) {
+            return ids.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        }
+    }
+}
@@ -1,76 +1,138 @@
 package com.cop_3060.service;
 
+import com.cop_3060.config.CacheConfig;
+import com.cop_3060.dto.BatchItemResult;
+import com.cop_3060.dto.BatchUpdateResourceRequest;
 import com.cop_3060.dto.CategoryDto;
 import com.cop_3060.dto.CreateResourceRequest;
 import com.cop_3060.dto.LocationDto;
 import com.cop_3060.dto.ResourceDto;
+import com.cop_3060.dto.ResourceRow;
+import com.cop_3060.dto.ResourceSearchRow;
 import com.cop_3060.dto.UpdateResourceRequest;
 import com.cop_3060.entity.Category;
 import com.cop_3060.entity.Location;
 import com.cop_3060.entity.Resource;
 import com.cop_3060.exception.InvalidReferenceException;
 import com.cop_3060.exception.NotFoundException;
+import com.cop_3060.exception.PayloadTooLargeException;
 import com.cop_3060.repository.CategoryRepository;
 import com.cop_3060.repository.LocationRepository;
+import com.cop_3060.repository.ResourceBatchRepository;
 import com.cop_3060.repository.ResourceRepository;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ResourceService {
 
+    private static final Logger log = LoggerFactory.getLogger(ResourceService.class);
+
     private final ResourceRepository resourceRepository;
     private final LocationRepository locationRepository;
     private final CategoryRepository categoryRepository;
+    private final LocationService locationService;
+    private final CategoryService categoryService;
+    private final ResourceSearchIndex searchIndex;
+    private final ResourceBatchRepository batchRepository;
+    private final Validator validator;
+    private final CacheManager cacheManager;
+    private final TransactionTemplate writeTx;
+
+    /** Upper bound on items per bulk request; larger imports are split by the client. */
+    public static final int MAX_BATCH_ITEMS = 1000;
 
     public ResourceService(ResourceRepository resourceRepository,
                           LocationRepository locationRepository,
-                          CategoryRepository categoryRepository) {
+                          CategoryRepository categoryRepository,
+                          LocationService locationService,
+                          CategoryService categoryService,
+                          ResourceSearchIndex searchIndex,
+                          ResourceBatchRepository batchRepository,
+                          Validator validator,
+                          CacheManager cacheManager,
+                          PlatformTransactionManager transactionManager) {
         this.resourceRepository = resourceRepository;
         this.locationRepository = locationRepository;
         this.categoryRepository = categoryRepository;
+        this.locationService = locationService;
+        this.categoryService = categoryService;
+        this.searchIndex = searchIndex;
+        this.batchRepository = batchRepository;
+        this.validator = validator;
+        this.cacheManager = cacheManager;
+        this.writeTx = new TransactionTemplate(transactionManager);
     }
 
     @PostConstruct
     public void logStartup() {
-        System.out.println("ResourceService initialized with " + resourceRepository.count() + " resources.");
+        log.info("ResourceService initialized with {} resources", resourceRepository.count());
     }
 
     public ResourceDto create(CreateResourceRequest req) {
-        Location location = locationRepository.findById(req.locationId())
-                .orElseThrow(() -> new InvalidReferenceException("Invalid locationId: " + req.locationId()));
-        Category category = categoryRepository.findById(req.categoryId())
-                .orElseThrow(() -> new InvalidReferenceException("Invalid categoryId: " + req.categoryId()));
+        LocationDto location = resolveLocation(req.locationId());
+        CategoryDto category = resolveCategory(req.categoryId());
 
-        Resource resource = new Resource(req.name(), req.description(), location, category);
-        Resource saved = resourceRepository.save(resource);
-        return toDto(saved);
+        // references are validated through the cache; getReferenceById only sets the foreign keys
+        Resource resource = new Resource(req.name(), req.description(),
+                locationRepository.getReferenceById(location.id()),
+                categoryRepository.getReferenceById(category.id()));
+        Resource saved = save(resource, req.locationId(), req.categoryId());
+        searchIndex.put(saved.getId(), saved.getName(), saved.getDescription());
+        return new ResourceDto(saved.getId(), saved.getName(), saved.getDescription(), location, category);
     }
 
     public Map<String, Object> findAll(int page, int size, String sort, String category, String q) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "name"));
-        Page<Resource> result;
+        // (name, id) is a total order that matches idx_resources_name_id and
+        // idx_resources_category_name_id: pages are read off the index without a sort, and rows
+        // sharing a name cannot repeat or go missing between offset pages
+        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.ASC, "name", "id"));
+        Page<ResourceRow> result;
 
         if (category != null && !category.isBlank()) {
-            result = resourceRepository.findByCategoryId(Long.parseLong(category), pageable);
+            result = resourceRepository.findRowsByCategoryId(Long.parseLong(category), pageable);
         } else if (q != null && !q.isBlank()) {
-            result = resourceRepository.searchByName(q, pageable);
+            result = searchIndexed(q, pageable);
         } else {
-            result = resourceRepository.findAll(pageable);
+            result = resourceRepository.findAllRows(pageable);
         }
 
         List<ResourceDto> content = result.getContent()
                 .stream()
-                .map(this::toDto)
+                .map(ResourceRow::toDto)
                 .collect(Collectors.toList());
 
         Map<String, Object> envelope = new LinkedHashMap<>();
@@ -82,34 +144,218 @@ public class ResourceService {
         return envelope;
     }
 
+    /**
+     * Keyset (seek) variant of {@link #findAll}: continues after {@code cursor} instead of skipping
+     * {@code page * size} rows and skips the count query, so deep pages cost the same as the first.
+     */
+    public Map<String, Object> findAllKeyset(String cursor, int size, String category) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<ResourceRow> result;
+
+        if (category != null && !category.isBlank()) {
+            Long categoryId = Long.parseLong(category);
+            result = after == null
+                    ? resourceRepository.findRowsByCategoryIdFirst(categoryId, limit)
+                    : resourceRepository.findRowsByCategoryIdAfter(categoryId, after.key(), after.id(), limit);
+        } else {
+            result = after == null
+                    ? resourceRepository.findRowsFirst(limit)
+                    : resourceRepository.findRowsAfter(after.key(), after.id(), limit);
+        }
+
+        List<ResourceRow> rows = result.getContent();
+        String nextCursor = null;
+        if (result.hasNext() && !rows.isEmpty()) {
+            ResourceRow last = rows.get(rows.size() - 1);
+            nextCursor = new KeysetCursor(last.name(), last.id()).encode();
+        }
+
+        Map<String, Object> envelope = new LinkedHashMap<>();
+        envelope.put("content", rows.stream().map(ResourceRow::toDto).collect(Collectors.toList()));
+        envelope.put("size", size);
+        envelope.put("hasNext", result.hasNext());
+        envelope.put("nextCursor", nextCursor);
+        return envelope;
+    }
+
+    @Cacheable(cacheNames = CacheConfig.RESOURCES, key = "#id")
     public ResourceDto findById(Long id) {
         Resource resource = resourceRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Resource " + id + " not found"));
         return toDto(resource);
     }
 
+    @CachePut(cacheNames = CacheConfig.RESOURCES, key = "#id")
     public ResourceDto update(Long id, UpdateResourceRequest req) {
         Resource resource = resourceRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Resource " + id + " not found"));
 
-        Location location = locationRepository.findById(req.locationId())
-                .orElseThrow(() -> new InvalidReferenceException("Invalid locationId: " + req.locationId()));
-        Category category = categoryRepository.findById(req.categoryId())
-                .orElseThrow(() -> new InvalidReferenceException("Invalid categoryId: " + req.categoryId()));
+        LocationDto location = resolveLocation(req.locationId());
+        CategoryDto category = resolveCategory(req.categoryId());
 
         resource.setName(req.name());
         resource.setDescription(req.description());
-        resource.setLocation(location);
-        resource.setCategory(category);
-        Resource updated = resourceRepository.save(resource);
-        return toDto(updated);
+        resource.setLocation(locationRepository.getReferenceById(location.id()));
+        resource.setCategory(categoryRepository.getReferenceById(category.id()));
+        Resource updated = save(resource, req.locationId(), req.categoryId());
+        searchIndex.put(updated.getId(), updated.getName(), updated.getDescription());
+        return new ResourceDto(updated.getId(), updated.getName(), updated.getDescription(), location, category);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.RESOURCES, key = "#id")
     public void delete(Long id) {
         if (!resourceRepository.existsById(id)) {
             throw new NotFoundException("Resource " + id + " not found");
         }
         resourceRepository.deleteById(id);
+        searchIndex.remove(id);
+    }
+
+    /**
+     * Bulk create. All referenced locations and categories are resolved with one query each,
+     * valid items are inserted as a single JDBC batch, and every item gets its own result.
+     */
+    public List<BatchItemResult> createAll(List<CreateResourceRequest> requests) {
+        checkBatchSize(requests);
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<Long, LocationDto> locations = loadLocations(requests.stream()
+                .filter(Objects::nonNull).map(CreateResourceRequest::locationId));
+        Map<Long, CategoryDto> categories = loadCategories(requests.stream()
+                .filter(Objects::nonNull).map(CreateResourceRequest::categoryId));
+
+        List<Integer> accepted = new ArrayList<>();
+        List<ResourceBatchRepository.Row> rows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CreateResourceRequest req = requests.get(i);
+            String error = validate(req);
+            if (error == null) {
+                error = referenceError(req.locationId(), req.categoryId(), locations, categories);
+            }
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, null, 400, error);
+                continue;
+            }
+            accepted.add(i);
+            rows.add(new ResourceBatchRepository.Row(null, req.name(), req.description(), req.locationId(), req.categoryId()));
+        }
+
+        List<Long> ids = writeReferencing(rows, () -> batchRepository.insertAll(rows));
+        List<ResourceSearchRow> indexed = new ArrayList<>(accepted.size());
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            CreateResourceRequest req = requests.get(i);
+            ResourceDto dto = new ResourceDto(ids.get(k), req.name(), req.description(),
+                    locations.get(req.locationId()), categories.get(req.categoryId()));
+            indexed.add(new ResourceSearchRow(dto.id(), dto.name(), dto.description()));
+            results[i] = BatchItemResult.ok(i, 201, dto);
+        }
+        searchIndex.putAll(indexed);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Bulk update. Existence of the resources and of every referenced location and category
+     * is checked with one query each; valid items are written as a single JDBC batch. A row
+     * deleted between the check and the batch updates nothing and is reported as 404.
+     */
+    public List<BatchItemResult> updateAll(List<BatchUpdateResourceRequest> requests) {
+        checkBatchSize(requests);
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Set<Long> existing = existingIds(requests.stream()
+                .filter(Objects::nonNull).map(BatchUpdateResourceRequest::id));
+        Map<Long, LocationDto> locations = loadLocations(requests.stream()
+                .filter(Objects::nonNull).map(BatchUpdateResourceRequest::locationId));
+        Map<Long, CategoryDto> categories = loadCategories(requests.stream()
+                .filter(Objects::nonNull).map(BatchUpdateResourceRequest::categoryId));
+
+        List<Integer> accepted = new ArrayList<>();
+        List<ResourceBatchRepository.Row> rows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            BatchUpdateResourceRequest req = requests.get(i);
+            String error = validate(req);
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, req == null ? null : req.id(), 400, error);
+                continue;
+            }
+            if (!existing.contains(req.id())) {
+                results[i] = BatchItemResult.failed(i, req.id(), 404, "Resource " + req.id() + " not found");
+                continue;
+            }
+            error = referenceError(req.locationId(), req.categoryId(), locations, categories);
+            if (error != null) {
+                results[i] = BatchItemResult.failed(i, req.id(), 400, error);
+                continue;
+            }
+            accepted.add(i);
+            rows.add(new ResourceBatchRepository.Row(req.id(), req.name(), req.description(), req.locationId(), req.categoryId()));
+        }
+
+        boolean[] written = writeReferencing(rows, () -> batchRepository.updateAll(rows));
+        Cache cache = cacheManager.getCache(CacheConfig.RESOURCES);
+        List<ResourceSearchRow> indexed = new ArrayList<>(accepted.size());
+        for (int k = 0; k < accepted.size(); k++) {
+            int i = accepted.get(k);
+            BatchUpdateResourceRequest req = requests.get(i);
+            if (!written[k]) {
+                // deleted after the existence check
+                results[i] = BatchItemResult.failed(i, req.id(), 404, "Resource " + req.id() + " not found");
+                continue;
+            }
+            ResourceDto dto = new ResourceDto(req.id(), req.name(), req.description(),
+                    locations.get(req.locationId()), categories.get(req.categoryId()));
+            indexed.add(new ResourceSearchRow(dto.id(), dto.name(), dto.description()));
+            cache.put(dto.id(), dto);
+            results[i] = BatchItemResult.ok(i, 200, dto);
+        }
+        searchIndex.putAll(indexed);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Bulk delete. Ids that do not exist are reported as 404; the rest are deleted in one JDBC batch,
+     * and any whose row was already gone by then is reported as 404 too.
+     */
+    public List<BatchItemResult> deleteAll(List<Long> ids) {
+        checkBatchSize(ids);
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        Set<Long> existing = existingIds(ids.stream());
+
+        Set<Long> toDelete = new LinkedHashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = BatchItemResult.failed(i, null, 400, "id is required");
+            } else if (!existing.contains(id)) {
+                results[i] = BatchItemResult.failed(i, id, 404, "Resource " + id + " not found");
+            } else {
+                toDelete.add(id);
+            }
+        }
+
+        List<Long> deleting = new ArrayList<>(toDelete);
+        boolean[] removed = batchRepository.deleteAll(deleting);
+        Set<Long> deleted = new HashSet<>();
+        for (int k = 0; k < deleting.size(); k++) {
+            if (removed[k]) {
+                deleted.add(deleting.get(k));
+            }
+        }
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (results[i] == null) {
+                // an id deleted by someone else after the existence check is not found
+                results[i] = deleted.contains(id)
+                        ? BatchItemResult.done(i, id, 204)
+                        : BatchItemResult.failed(i, id, 404, "Resource " + id + " not found");
+            }
+        }
+        Cache cache = cacheManager.getCache(CacheConfig.RESOURCES);
+        for (Long id : toDelete) {
+            searchIndex.remove(id);
+            cache.evict(id);
+        }
+        return Arrays.asList(results);
     }
 
     public int countByLocation(Long locationId) {
@@ -120,6 +366,130 @@ public class ResourceService {
         return resourceRepository.countByCategoryId(categoryId);
     }
 
+    private void checkBatchSize(List<?> items) {
+        if (items.size() > MAX_BATCH_ITEMS) {
+            throw new PayloadTooLargeException("Batch of " + items.size() + " items exceeds the limit of " + MAX_BATCH_ITEMS);
+        }
+    }
+
+    /** Bean-validate one bulk item; returns the joined violations, or null when valid. */
+    private String validate(Object item) {
+        if (item == null) {
+            return "item is required";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private String referenceError(Long locationId, Long categoryId,
+                                  Map<Long, LocationDto> locations, Map<Long, CategoryDto> categories) {
+        if (!locations.containsKey(locationId)) {
+            return "Invalid locationId: " + locationId;
+        }
+        if (!categories.containsKey(categoryId)) {
+            return "Invalid categoryId: " + categoryId;
+        }
+        return null;
+    }
+
+    private Set<Long> existingIds(Stream<Long> ids) {
+        Set<Long> wanted = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        return wanted.isEmpty() ? Set.of() : new HashSet<>(resourceRepository.findExistingIds(wanted));
+    }
+
+    private Map<Long, LocationDto> loadLocations(Stream<Long> ids) {
+        Set<Long> wanted = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+        return locationRepository.findAllById(wanted).stream()
+                .collect(Collectors.toMap(Location::getId,
+                        l -> new LocationDto(l.getId(), l.getBuilding(), l.getRoom())));
+    }
+
+    private Map<Long, CategoryDto> loadCategories(Stream<Long> ids) {
+        Set<Long> wanted = ids.filter(Objects::nonNull).collect(Collectors.toSet());
+        if (wanted.isEmpty()) {
+            return Map.of();
+        }
+        return categoryRepository.findAllById(wanted).stream()
+                .collect(Collectors.toMap(Category::getId,
+                        c -> new CategoryDto(c.getId(), c.getName(), c.getDescription())));
+    }
+
+    private Resource save(Resource resource, Long locationId, Long categoryId) {
+        return write(Set.of(locationId), Set.of(categoryId),
+                "Invalid locationId or categoryId: " + locationId + ", " + categoryId,
+                () -> resourceRepository.save(resource));
+    }
+
+    private <T> T writeReferencing(List<ResourceBatchRepository.Row> rows, Supplier<T> batch) {
+        Set<Long> locationIds = rows.stream().map(ResourceBatchRepository.Row::locationId).collect(Collectors.toSet());
+        Set<Long> categoryIds = rows.stream().map(ResourceBatchRepository.Row::categoryId).collect(Collectors.toSet());
+        return write(locationIds, categoryIds, "A referenced location or category was deleted during the batch", batch);
+    }
+
+    /**
+     * References are checked through the caches before the write, so the write itself runs with
+     * the referenced locations and categories share-locked: a delete racing it either waits and
+     * then fails on the foreign key (409), or commits first and the write finds a reference gone
+     * (400). MySQL's foreign-key checks take that lock anyway; H2's do not.
+     */
+    private <T> T write(Collection<Long> locationIds, Collection<Long> categoryIds, String gone, Supplier<T> write) {
+        if (locationIds.isEmpty()) {
+            return write.get();
+        }
+        try {
+            return writeTx.execute(status -> {
+                if (locationRepository.lockAllById(locationIds).size() < locationIds.size()
+                        || categoryRepository.lockAllById(categoryIds).size() < categoryIds.size()) {
+                    throw new InvalidReferenceException(gone);
+                }
+                return write.get();
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidReferenceException(gone, e);
+        }
+    }
+
+    private LocationDto resolveLocation(Long locationId) {
+        try {
+            return locationService.findById(locationId);
+        } catch (NotFoundException e) {
+            throw new InvalidReferenceException("Invalid locationId: " + locationId);
+        }
+    }
+
+    private CategoryDto resolveCategory(Long categoryId) {
+        try {
+            return categoryService.findById(categoryId);
+        } catch (NotFoundException e) {
+            throw new InvalidReferenceException("Invalid categoryId: " + categoryId);
+        }
+    }
+
+    /**
+     * Answer a text search from the in-process index, loading only the rows of the requested page.
+     * Matching is by word prefix; see {@link ResourceSearchIndex}.
+     */
+    private Page<ResourceRow> searchIndexed(String q, Pageable pageable) {
+        ResourceSearchIndex.Hits hits = searchIndex.search(q, pageable.getPageNumber(), pageable.getPageSize());
+        Map<Long, ResourceRow> byId = hits.ids().isEmpty() ? Map.of() : resourceRepository.findRowsByIdIn(hits.ids())
+                .stream()
+                .collect(Collectors.toMap(ResourceRow::id, Function.identity()));
+        List<ResourceRow> ordered = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return new PageImpl<>(ordered, pageable, hits.total());
+    }
+
     private ResourceDto toDto(Resource resource) {
         LocationDto locDto = new LocationDto(
                 resource.getLocation().getId(),
@@ -0,0 +1,152 @@
+package com.cop_3060.service;
+
+import com.cop_3060.exception.ThrottledExceptionLogger;
+import com.cop_3060.service.ExternalApiService.WeatherKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Refreshes popular weather entries shortly before they go stale, so requests for hot
+ * cities are answered from cache instead of waiting on the upstream.
+ *
+ * Each tick picks the most requested keys (request counts decay over time) whose cached
+ * value is within {@code lead} of the TTL, and schedules one refresh per key after a random
+ * jitter so refreshes do not all fire together. Refreshes run on a small fixed pool and are
+ * capped by a global per-minute budget; keys that miss the budget fall back to the normal
+ * stale-while-revalidate path. Failed refreshes are counted ({@code weather.refresh.failures})
+ * and logged at most once a minute per distinct failure.
+ */
+@Component
+public class WeatherRefreshScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(WeatherRefreshScheduler.class);
+
+    private final ExternalApiService externalApiService;
+    private final ThrottledExceptionLogger failures = new ThrottledExceptionLogger(log, Duration.ofMinutes(1));
+    private final Counter refreshFailures;
+    private final boolean enabled;
+    private final int maxKeys;
+    private final long minHits;
+    private final Duration lead;
+    private final Duration jitter;
+    private final Duration decayInterval;
+    private final RateBudget budget;
+    private final ScheduledExecutorService workers;
+    private final Set<WeatherKey> pending = ConcurrentHashMap.newKeySet();
+    private volatile long lastDecayNanos = System.nanoTime();
+
+    public WeatherRefreshScheduler(ExternalApiService externalApiService,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${external.refresh.enabled:true}") boolean enabled,
+                                   @Value("${external.refresh.hot-keys:50}") int maxKeys,
+                                   @Value("${external.refresh.min-hits:3}") long minHits,
+                                   @Value("${external.refresh.lead:PT1M}") Duration lead,
+                                   @Value("${external.refresh.jitter:PT20S}") Duration jitter,
+                                   @Value("${external.refresh.decay:PT5M}") Duration decayInterval,
+                                   @Value("${external.refresh.workers:2}") int workers,
+                                   @Value("${external.refresh.max-per-minute:60}") int maxPerMinute) {
+        this.externalApiService = externalApiService;
+        this.refreshFailures = Counter.builder("weather.refresh.failures")
+                .description("Background weather refreshes that failed or timed out")
+                .register(meterRegistry);
+        this.enabled = enabled;
+        this.maxKeys = maxKeys;
+        this.minHits = minHits;
+        this.lead = lead;
+        this.jitter = jitter;
+        this.decayInterval = decayInterval;
+        this.budget = new RateBudget(maxPerMinute);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newScheduledThreadPool(Math.max(1, workers), r -> {
+            Thread t = new Thread(r, "weather-refresh-" + threads.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${external.refresh.tick:PT15S}", initialDelayString = "${external.refresh.tick:PT15S}")
+    public void tick() {
+        if (!enabled) return;
+
+        long now = System.nanoTime();
+        if (now - lastDecayNanos >= decayInterval.toNanos()) {
+            externalApiService.decayAccessCounts();
+            lastDecayNanos = now;
+        }
+
+        Duration dueAt = externalApiService.cacheTtl().minus(lead);
+        for (WeatherKey key : externalApiService.hotKeys(maxKeys, minHits)) {
+            Optional<Duration> age = externalApiService.cacheAge(key);
+            if (age.isEmpty() || age.get().compareTo(dueAt) < 0 || !pending.add(key)) {
+                continue;
+            }
+            long delayMs = jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis());
+            workers.schedule(() -> refresh(key), delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void refresh(WeatherKey key) {
+        try {
+            if (budget.tryAcquire()) {
+                // Wait for the result so the pool size bounds concurrent refreshes
+                externalApiService.refresh(key).get(1, TimeUnit.MINUTES);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // shutting down
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            // the old value stays cached; the next tick or a request will retry
+            refreshFailures.increment();
+            failures.warn(e instanceof ExecutionException ? e.getCause() : e, "Weather refresh failed for {}", key);
+        } finally {
+            pending.remove(key);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Token bucket holding up to one minute's worth of refreshes, refilled continuously.
+     */
+    static final class RateBudget {
+        private final double perNano;
+        private final double capacity;
+        private double tokens;
+        private long last = System.nanoTime();
+
+        RateBudget(int perMinute) {
+            this.capacity = Math.max(1, perMinute);
+            this.perNano = capacity / TimeUnit.MINUTES.toNanos(1);
+            this.tokens = capacity;
+        }
+
+        synchronized boolean tryAcquire() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - last) * perNano);
+            last = now;
+            if (tokens < 1) return false;
+            tokens -= 1;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cop_3060.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrencyLimitFilterTest {
+
+    @Test
+    public void testRequestsOverTheCapAreShedWith503() throws Exception {
+        // Arrange - one slot, held by a request parked inside the chain
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ZERO);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> {
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/api/resources"), new MockHttpServletResponse(),
+                        (req, res) -> {
+                            entered.countDown();
+                            try {
+                                release.await(5, TimeUnit.SECONDS);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // Act
+        MockHttpServletResponse shed = new MockHttpServletResponse();
+        long start = System.nanoTime();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/resources"), shed, new MockFilterChain());
+        long shedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        MockHttpServletResponse asset = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/static/js/main.js"), asset, new MockFilterChain());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        MockHttpServletResponse after = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/resources"), after, new MockFilterChain());
+
+        // Assert
+        assertEquals(0, filter.inFlight());
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+        assertTrue(shed.getContentAsString().contains("\"status\":503"));
+        assertTrue(shedMs < 100, "rejected after " + shedMs + " ms");
+        assertEquals(200, asset.getStatus(), "non-API paths are not limited");
+        assertEquals(200, after.getStatus());
+    }
+
+    @Test
+    public void testAsyncRequestFreesSlotWhenHandlerReturns() throws Exception {
+        // Arrange - one slot; the handler starts async work (an export, say) and returns
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(1, Duration.ZERO);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resources/export");
+        request.setAsyncSupported(true);
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        int whileAsync = filter.inFlight();
+        MockHttpServletResponse crud = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/resources"), crud, new MockFilterChain());
+
+        // Assert - the async work is still running, but CRUD is served
+        assertTrue(request.isAsyncStarted());
+        assertEquals(0, whileAsync);
+        assertEquals(200, crud.getStatus());
+        assertEquals(0, filter.inFlight());
+    }
+}
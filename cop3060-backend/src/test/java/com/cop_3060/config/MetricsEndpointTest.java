@@ -0,0 +1,49 @@
+package com.cop_3060.config;
+
+import com.cop_3060.security.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "management.metrics.distribution.percentiles-histogram.http.server.requests=true")
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    public void testPrometheusScrapeCoversEveryLayer() throws Exception {
+        // Arrange - one controller -> service -> repository round trip and one bad bearer token
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/categories").header("Authorization", "Bearer not-a-token")).andExpect(status().isOk());
+
+        // Act
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + jwtUtil.generateToken("scraper")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        // Assert
+        assertTrue(scrape.contains("http_server_requests_seconds_bucket{"), "controller latency histogram");
+        assertTrue(scrape.contains("uri=\"/api/categories\""));
+        assertTrue(scrape.contains("app_service_calls_seconds_count{") && scrape.contains("class=\"CategoryService\""),
+                "service timer");
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count{"), "repository timer");
+        assertTrue(scrape.contains("auth_failures_total{") && scrape.contains("reason=\"invalid_token\""));
+        assertTrue(scrape.contains("cache_gets_total{") && scrape.contains("cache=\"jwt\""), "cache hit/miss counters");
+        assertTrue(scrape.contains("jvm_memory_used_bytes"), "JVM gauges");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "connection pool gauges");
+    }
+}
@@ -0,0 +1,96 @@
+package com.cop_3060.config;
+
+import com.cop_3060.security.JwtAuthenticationFilter;
+import com.cop_3060.security.JwtUtil;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class SecurityChainTest {
+
+    @Autowired
+    private FilterChainProxy filterChainProxy;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Test
+    public void testStaticAssetsBypassSecurity() {
+        // Act
+        List<Filter> filters = filterChainProxy.getFilters("/static/js/main.c17ac5a9.js");
+
+        // Assert
+        assertTrue(filters.isEmpty());
+    }
+
+    @Test
+    public void testAnonymousReadSkipsJwtAndBasic() {
+        // Arrange
+        MockHttpServletRequest anonymous = new MockHttpServletRequest("GET", "/api/categories");
+        MockHttpServletRequest withToken = new MockHttpServletRequest("GET", "/api/categories");
+        withToken.addHeader("Authorization", "Bearer abc");
+
+        // Act / Assert
+        assertFalse(hasFilter(anonymous, JwtAuthenticationFilter.class));
+        assertFalse(hasFilter(anonymous, org.springframework.security.web.authentication.www.BasicAuthenticationFilter.class));
+        assertTrue(hasFilter(withToken, JwtAuthenticationFilter.class));
+        assertTrue(hasFilter(new MockHttpServletRequest("POST", "/api/categories"), JwtAuthenticationFilter.class));
+    }
+
+    @Test
+    public void testMutationsStillNeedToken() throws Exception {
+        // Arrange
+        String body = "{\"name\":\"Chain\",\"description\":\"Security chain test\"}";
+        String token = jwtUtil.generateToken("chain-user");
+
+        // Act & Assert
+        mockMvc.perform(get("/api/categories")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/categories").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(result -> assertTrue(result.getResponse().getStatus() >= 400, "anonymous create was accepted"));
+        mockMvc.perform(post("/api/categories").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    public void testActuatorNeedsTokenExceptHealth() throws Exception {
+        // Arrange
+        String token = jwtUtil.generateToken("ops-user");
+
+        // Act & Assert
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/actuator/caches")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+        // not exposed at all, so a signed-up user cannot clear the caches
+        mockMvc.perform(delete("/actuator/caches").header("Authorization", "Bearer " + token)).andExpect(status().isNotFound());
+    }
+
+    private boolean hasFilter(MockHttpServletRequest request, Class<? extends Filter> type) {
+        SecurityFilterChain chain = filterChainProxy.getFilterChains().stream()
+                .filter(c -> c.matches(request))
+                .findFirst()
+                .orElseThrow();
+        return chain.getFilters().stream().anyMatch(type::isInstance);
+    }
+}
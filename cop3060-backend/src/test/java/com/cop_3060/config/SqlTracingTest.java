@@ -0,0 +1,75 @@
+package com.cop_3060.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"app.sql.statement-budget=0", "app.sql.slow-threshold=0ms"})
+@AutoConfigureMockMvc
+public class SqlTracingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    public void testStatementsAreCountedPerRequestPattern() throws Exception {
+        // Arrange
+        double before = overBudget();
+
+        // Act
+        mockMvc.perform(get("/api/resources")).andExpect(status().isOk());
+
+        // Assert - a zero budget and zero threshold flag every request and statement
+        assertTrue(meterRegistry.get("http.request.sql.statements").tag("uri", "/api/resources").summary().count() >= 1);
+        assertTrue(meterRegistry.get("http.request.sql.statements").tag("uri", "/api/resources").summary().max() >= 1);
+        assertEquals(before + 1, overBudget());
+        assertTrue(meterRegistry.get("jdbc.statements").tag("type", "select").timer().count() >= 1);
+        assertTrue(meterRegistry.get("jdbc.statements.slow").counter().count() >= 1);
+    }
+
+    @Test
+    public void testStreamedExportIsCountedWhenItCompletes() throws Exception {
+        // Act - the export's query runs on the task executor after the first dispatch returns
+        MvcResult started = mockMvc.perform(get("/api/resources/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+        ((MockAsyncContext) started.getRequest().getAsyncContext()).complete();
+
+        // Assert
+        var summary = meterRegistry.get("http.request.sql.statements").tag("uri", "/api/resources/export").summary();
+        assertEquals(1, summary.count());
+        assertTrue(summary.max() >= 1);
+    }
+
+    @Test
+    public void testDataSourceIsWrappedButStillUnwrapsToThePool() throws Exception {
+        // Assert
+        assertInstanceOf(SqlTracingDataSource.class, dataSource);
+        assertTrue(dataSource.isWrapperFor(com.zaxxer.hikari.HikariDataSource.class));
+    }
+
+    private double overBudget() {
+        var counter = meterRegistry.find("http.request.sql.over.budget").tag("uri", "/api/resources").counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
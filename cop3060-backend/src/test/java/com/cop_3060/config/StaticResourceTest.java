@@ -0,0 +1,62 @@
+package com.cop_3060.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class StaticResourceTest {
+
+    private static final String MAIN_JS = "/static/js/main.c17ac5a9.js";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testHashedAssetsAreImmutable() throws Exception {
+        // Act & Assert
+        MvcResult result = mockMvc.perform(get(MAIN_JS))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String cacheControl = result.getResponse().getHeader("Cache-Control");
+        assertTrue(cacheControl.contains("max-age=31536000"), cacheControl);
+        assertTrue(cacheControl.contains("immutable"), cacheControl);
+    }
+
+    @Test
+    public void testPrecompressedVariantServedWhenAccepted() throws Exception {
+        // Act
+        MvcResult plain = mockMvc.perform(get(MAIN_JS)).andReturn();
+        MvcResult gzip = mockMvc.perform(get(MAIN_JS).header("Accept-Encoding", "gzip, deflate")).andReturn();
+
+        // Assert - the .gz written at build time, much smaller than the original
+        assertEquals("gzip", gzip.getResponse().getHeader("Content-Encoding"));
+        assertTrue(gzip.getResponse().getHeaders("Vary").contains("Accept-Encoding"));
+        assertTrue(gzip.getResponse().getContentAsByteArray().length * 2 < plain.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    public void testIndexRevalidatesWithEtag() throws Exception {
+        // Arrange
+        MvcResult first = mockMvc.perform(get("/index.html"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", org.hamcrest.Matchers.containsString("no-cache")))
+                .andReturn();
+        String etag = first.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        // Act & Assert
+        mockMvc.perform(get("/index.html").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -8,12 +8,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
 
 import java.util.HashMap;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -35,7 +40,7 @@ public class AuthControllerTest {
         request.put("password", "testpass123");
 
         // Act & Assert - Register returns 201 Created
-        mockMvc.perform(post("/api/auth/register")
+        perform(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -50,7 +55,7 @@ public class AuthControllerTest {
         registerRequest.put("username", username);
         registerRequest.put("password", "testpass123");
 
-        mockMvc.perform(post("/api/auth/register")
+        perform(post("/api/auth/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(registerRequest)))
                 .andExpect(status().isCreated());
@@ -60,7 +65,7 @@ public class AuthControllerTest {
         loginRequest.put("username", username);
         loginRequest.put("password", "testpass123");
 
-        MvcResult result = mockMvc.perform(post("/api/auth/login")
+        MvcResult result = perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isOk())
@@ -80,9 +85,51 @@ public class AuthControllerTest {
         loginRequest.put("password", "wrongpassword");
 
         // Act & Assert
-        mockMvc.perform(post("/api/auth/login")
+        perform(post("/api/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(loginRequest)))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    public void testRepeatedWrongPasswordsAreThrottled() throws Exception {
+        // Arrange
+        String username = "throttled" + System.currentTimeMillis();
+        Map<String, String> registerRequest = Map.of("username", username, "password", "right-password");
+        perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)))
+                .andExpect(status().isCreated());
+        String wrong = objectMapper.writeValueAsString(Map.of("username", username, "password", "wrong"));
+        String right = objectMapper.writeValueAsString(Map.of("username", username, "password", "right-password"));
+
+        // Act - five wrong passwords from one address use up the account's attempts from there
+        for (int i = 0; i < 5; i++) {
+            perform(post("/api/auth/login").with(from("203.0.113.7")).contentType(MediaType.APPLICATION_JSON).content(wrong))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Assert - that address is refused even with the right password until the window is over
+        perform(post("/api/auth/login").with(from("203.0.113.7")).contentType(MediaType.APPLICATION_JSON).content(right))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.status").value(429));
+        // but the owner, signing in from elsewhere, is not locked out
+        perform(post("/api/auth/login").with(from("10.0.0.1")).contentType(MediaType.APPLICATION_JSON).content(right))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor from(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+
+    /** Login and register answer asynchronously unless refused up front; follow the dispatch. */
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        ResultActions actions = mockMvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mockMvc.perform(asyncDispatch(result)) : actions;
+    }
 }
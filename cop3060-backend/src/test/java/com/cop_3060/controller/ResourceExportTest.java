@@ -0,0 +1,109 @@
+package com.cop_3060.controller;
+
+import com.cop_3060.dto.CategoryDto;
+import com.cop_3060.dto.CreateCategoryRequest;
+import com.cop_3060.dto.CreateLocationRequest;
+import com.cop_3060.dto.CreateResourceRequest;
+import com.cop_3060.dto.LocationDto;
+import com.cop_3060.service.CategoryService;
+import com.cop_3060.service.LocationService;
+import com.cop_3060.service.ResourceService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ResourceExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private LocationService locationService;
+
+    private int before;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        before = export("ndjson").split("\n", -1).length - 1;
+        CategoryDto category = categoryService.create(new CreateCategoryRequest("Export", "Export rows"));
+        LocationDto location = locationService.create(new CreateLocationRequest("Export Hall", "1"));
+        resourceService.create(new CreateResourceRequest("Microscope", "Optical, \"high\" power", location.id(), category.id()));
+        resourceService.create(new CreateResourceRequest("Projector", "Digital projector", location.id(), category.id()));
+    }
+
+    @Test
+    public void testExportNdjsonWritesOneObjectPerLine() throws Exception {
+        // Act
+        String body = export("ndjson");
+
+        // Assert
+        String[] lines = body.split("\n");
+        assertEquals(before + 2, lines.length);
+        assertTrue(body.contains("\"name\":\"Projector\""));
+        assertTrue(body.contains("\"building\":\"Export Hall\""));
+    }
+
+    @Test
+    public void testExportCsvQuotesFields() throws Exception {
+        // Act
+        String body = export("csv");
+
+        // Assert
+        assertTrue(body.startsWith("id,name,description,"));
+        assertTrue(body.contains(",Microscope,\"Optical, \"\"high\"\" power\","));
+    }
+
+    @Test
+    public void testExportCsvNeutralisesFormulas() throws Exception {
+        // Arrange
+        CategoryDto category = categoryService.create(new CreateCategoryRequest("Formula", "Formula rows"));
+        LocationDto location = locationService.create(new CreateLocationRequest("Formula Hall", "2"));
+        resourceService.create(new CreateResourceRequest("=HYPERLINK(\"http://evil\")", "@SUM(A1:A2)", location.id(), category.id()));
+        resourceService.create(new CreateResourceRequest("-Negative", "+Positive", location.id(), category.id()));
+
+        // Act
+        String body = export("csv");
+
+        // Assert
+        assertTrue(body.contains(",\"'=HYPERLINK(\"\"http://evil\"\")\",'@SUM(A1:A2),"));
+        assertTrue(body.contains(",'-Negative,'+Positive,"));
+        assertTrue(body.contains(",Microscope,"));
+    }
+
+    @Test
+    public void testExportRejectsUnknownFormat() throws Exception {
+        mockMvc.perform(get("/api/resources/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    private String export(String format) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/resources/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.cop_3060.exception;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ThrottledExceptionLoggerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ThrottledExceptionLogger logger = new ThrottledExceptionLogger(
+            LoggerFactory.getLogger(ThrottledExceptionLoggerTest.class), Duration.ofMinutes(1), clock::get);
+
+    @Test
+    public void testRepeatsOfOneFailureAreLoggedOncePerWindow() {
+        // Arrange
+        RuntimeException timeout = new IllegalStateException("upstream timed out");
+
+        // Act & Assert
+        assertTrue(logger.log(Level.WARN, timeout, "weather fetch failed"));
+        assertFalse(logger.log(Level.WARN, timeout, "weather fetch failed"));
+        assertFalse(logger.log(Level.WARN, timeout, "weather fetch failed"));
+        clock.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertTrue(logger.log(Level.WARN, timeout, "weather fetch failed"));
+    }
+
+    @Test
+    public void testDifferentMessagesFromOneSiteShareAWindow() {
+        // Arrange
+        RuntimeException first = failure("request 1 timed out after 2001 ms");
+        RuntimeException second = failure("request 2 timed out after 2047 ms");
+
+        // Act & Assert
+        assertTrue(logger.log(Level.WARN, first, "weather fetch failed"));
+        assertFalse(logger.log(Level.WARN, second, "weather fetch failed"));
+    }
+
+    @Test
+    public void testDifferentFailuresAreNotSuppressedByEachOther() {
+        // Act & Assert
+        assertTrue(logger.log(Level.ERROR, new IllegalStateException("a"), "failed"));
+        assertTrue(logger.log(Level.ERROR, new IllegalStateException("a"), "failed"));
+        assertTrue(logger.log(Level.ERROR, new IllegalArgumentException("a"), "failed"));
+    }
+
+    private static RuntimeException failure(String message) {
+        return new IllegalStateException(message);
+    }
+}
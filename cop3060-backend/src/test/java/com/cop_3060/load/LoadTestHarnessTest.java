@@ -0,0 +1,399 @@
+package com.cop_3060.load;
+
+import com.cop_3060.security.JwtUtil;
+import com.cop_3060.service.ResourceSearchIndex;
+import com.cop_3060.service.StubUpstream;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test: boots the app on a random port, seeds categories, locations,
+ * resources and users straight through JDBC, then replays a weighted mix of endpoints at a
+ * fixed total rate of {@code loadtest.rate} requests/s, spread over {@code loadtest.clients}
+ * sender threads, for {@code loadtest.duration} (after a warm-up that is not recorded).
+ * Weather calls go to a local stub of Open-Meteo with a fixed delay.
+ *
+ * Every request has an intended send time on the fixed schedule and its latency is measured
+ * from that time, not from when it was actually sent. A server stall therefore shows up as
+ * queueing delay on every request scheduled during it, instead of as fewer, fast samples
+ * (coordinated omission). A warning is logged when the senders end far behind schedule.
+ *
+ * Logs throughput and HdrHistogram percentiles per endpoint and writes each endpoint's
+ * full distribution to {@code target/loadtest/<endpoint>.hgrm}.
+ *
+ * Run with: mvn test -Ploadtest [-Dloadtest.resources=100000 -Dloadtest.rate=2000 -Dloadtest.clients=64 ...]
+ * Add -Dspring.threads.virtual.enabled=true (Java 21) to compare virtual with platform request threads.
+ * That comparison has not been run yet: on Java 17 the flag changes nothing, so both runs measure platform threads.
+ * Uses the test database (in-memory H2, MySQL mode) unless spring.datasource.* are overridden,
+ * e.g. -Dspring.datasource.url=jdbc:mysql://localhost:3306/campus_load -Dspring.jpa.hibernate.ddl-auto=update
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LoadTestHarnessTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestHarnessTest.class);
+
+    private static final String[] WORDS = {
+            "Projector", "Microscope", "Laptop", "Whiteboard", "Camera", "Tripod", "Oscilloscope", "Printer",
+            "Monitor", "Speaker", "Tablet", "Router", "Scanner", "Headset", "Telescope", "Calculator"
+    };
+    private static final String PASSWORD = "load-test-pass";
+    private static final int INSERT_BATCH = 5_000;
+    /** Latencies are recorded in microseconds, up to a minute, with 3 significant digits. */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private static final StubUpstream upstream = startUpstream();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ResourceSearchIndex searchIndex;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${loadtest.resources:10000}")
+    private int resourceCount;
+
+    @Value("${loadtest.categories:50}")
+    private int categoryCount;
+
+    @Value("${loadtest.locations:200}")
+    private int locationCount;
+
+    @Value("${loadtest.users:100}")
+    private int userCount;
+
+    @Value("${loadtest.cities:200}")
+    private int cityCount;
+
+    @Value("${loadtest.clients:32}")
+    private int clients;
+
+    @Value("${loadtest.rate:500}")
+    private double rate;
+
+    @Value("${loadtest.warmup:PT10S}")
+    private Duration warmup;
+
+    @Value("${loadtest.duration:PT30S}")
+    private Duration duration;
+
+    @Value("${loadtest.mix:list=40,search=20,get=25,create=5,login=5,weather=5}")
+    private String mixSpec;
+
+    @Value("${loadtest.upstream-latency-ms:50}")
+    private long upstreamLatencyMs;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+    private List<Long> categoryIds;
+    private List<Long> locationIds;
+    private long minResourceId;
+    private long maxResourceId;
+    private String token;
+
+    @DynamicPropertySource
+    static void upstreamProperties(DynamicPropertyRegistry registry) {
+        registry.add("external.open-meteo.geocoding-url", () -> upstream.url("/v1/search"));
+        registry.add("external.open-meteo.forecast-url", () -> upstream.url("/v1/forecast"));
+        registry.add("external.openweather.key", () -> "");
+        registry.add("external.refresh.enabled", () -> "false");
+    }
+
+    @AfterAll
+    static void stopUpstream() {
+        upstream.close();
+    }
+
+    @Test
+    public void replayWeightedMix() throws Exception {
+        // Arrange
+        upstream.setLatencyMs(upstreamLatencyMs);
+        long seedStart = System.nanoTime();
+        seed();
+        log.info("Seeded {} categories, {} locations, {} resources, {} users in {} s",
+                categoryCount, locationCount, resourceCount, userCount, String.format("%.1f", (System.nanoTime() - seedStart) / 1e9));
+        Map<String, Endpoint> endpoints = endpoints();
+        Mix mix = Mix.parse(mixSpec, endpoints.keySet());
+
+        // Act - each sender owns every clients-th slot of one fixed schedule
+        long intervalNanos = (long) (clients * 1e9 / rate);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long stopAt = measureFrom + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> loops = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                long first = start + c * intervalNanos / clients;
+                loops.add(pool.submit(() -> {
+                    for (long intended = first; intended < stopAt; intended += intervalNanos) {
+                        long wait = intended - System.nanoTime();
+                        if (wait > 0) LockSupport.parkNanos(wait);
+                        Endpoint endpoint = endpoints.get(mix.pick(ThreadLocalRandom.current().nextInt(mix.total())));
+                        HttpRequest request = endpoint.request();
+                        int status;
+                        try {
+                            status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        } catch (IOException e) {
+                            status = -1;
+                        }
+                        if (intended >= measureFrom) endpoint.record(System.nanoTime() - intended, status);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> loop : loops) loop.get();
+        } finally {
+            pool.shutdownNow();
+        }
+        long overrunMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - stopAt);
+        if (overrunMs > 1000) {
+            log.warn("Senders finished {} ms behind schedule: the server could not sustain {} req/s "
+                    + "(or loadtest.clients is too low to keep that many requests in flight)", overrunMs, rate);
+        }
+
+        // Assert / report
+        report(endpoints, duration.toNanos() / 1e9);
+        assertTrue(endpoints.values().stream().mapToLong(e -> e.ok.sum()).sum() > 0);
+    }
+
+    private void seed() {
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> args = new ArrayList<>();
+        for (int i = 0; i < categoryCount; i++) {
+            args.add(new Object[]{"Load " + run + " category " + i, "Equipment group " + i});
+        }
+        jdbc.batchUpdate("INSERT INTO categories (name, description) VALUES (?, ?)", args);
+        categoryIds = jdbc.queryForList("SELECT id FROM categories WHERE name LIKE ?", Long.class, "Load " + run + " %");
+
+        args.clear();
+        for (int i = 0; i < locationCount; i++) {
+            args.add(new Object[]{"Load " + run + " hall " + (char) ('A' + i % 26), "Room " + i});
+        }
+        jdbc.batchUpdate("INSERT INTO locations (building, room) VALUES (?, ?)", args);
+        locationIds = jdbc.queryForList("SELECT id FROM locations WHERE building LIKE ?", Long.class, "Load " + run + " %");
+
+        minResourceId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM resources", Long.class) + 1;
+        args.clear();
+        for (int i = 0; i < resourceCount; i++) {
+            String word = WORDS[i % WORDS.length];
+            args.add(new Object[]{word + " " + run + "-" + i, word + " for lab and classroom use, unit " + i,
+                    locationIds.get(i % locationIds.size()), categoryIds.get(i % categoryIds.size())});
+            if (args.size() == INSERT_BATCH || i == resourceCount - 1) {
+                jdbc.batchUpdate("INSERT INTO resources (name, description, location_id, category_id) VALUES (?, ?, ?, ?)", args);
+                args.clear();
+            }
+        }
+        maxResourceId = jdbc.queryForObject("SELECT MAX(id) FROM resources", Long.class);
+
+        for (int i = 0; i < userCount; i++) {
+            args.add(new Object[]{username(i), hash, "USER"});
+        }
+        jdbc.batchUpdate("INSERT INTO users (username, password, role) VALUES (?, ?, ?)", args);
+
+        // The index loaded whatever was there at startup
+        searchIndex.rebuild();
+        token = jwtUtil.generateToken(username(0));
+    }
+
+    private Map<String, Endpoint> endpoints() {
+        Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+        endpoints.put("list", new Endpoint("GET /api/resources", () ->
+                get("/api/resources?page=" + random(50) + "&size=20&sort=name")));
+        endpoints.put("search", new Endpoint("GET /api/resources?q=", () ->
+                get("/api/resources?q=" + WORDS[random(WORDS.length)].toLowerCase() + "&page=0&size=20")));
+        endpoints.put("get", new Endpoint("GET /api/resources/{id}", () ->
+                get("/api/resources/" + ThreadLocalRandom.current().nextLong(minResourceId, maxResourceId + 1))));
+        endpoints.put("create", new Endpoint("POST /api/resources", () ->
+                post("/api/resources", "{\"name\":\"Created " + run + "-" + random(1_000_000) + "\",\"description\":\"Load test item\","
+                        + "\"locationId\":" + locationIds.get(random(locationIds.size()))
+                        + ",\"categoryId\":" + categoryIds.get(random(categoryIds.size())) + "}")
+                        .header("Authorization", "Bearer " + token).build()));
+        endpoints.put("login", new Endpoint("POST /api/auth/login", () ->
+                post("/api/auth/login", "{\"username\":\"" + username(random(userCount)) + "\",\"password\":\"" + PASSWORD + "\"}").build()));
+        endpoints.put("weather", new Endpoint("GET /api/external/weather", () ->
+                get("/api/external/weather?city=City" + random(cityCount))));
+        // Not in the default mix: compare the security fast paths, e.g. -Dloadtest.mix=asset=1,categories=1,categories-auth=1
+        endpoints.put("asset", new Endpoint("GET /static/css/main.*.css", () ->
+                get("/static/css/main.5f0e7fa2.css")));
+        endpoints.put("categories", new Endpoint("GET /api/categories", () ->
+                get("/api/categories")));
+        endpoints.put("categories-auth", new Endpoint("GET /api/categories (bearer)", () ->
+                HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/categories"))
+                        .header("Authorization", "Bearer " + token).GET().build()));
+        return endpoints;
+    }
+
+    private void report(Map<String, Endpoint> endpoints, double seconds) throws IOException {
+        Path dir = Path.of("target", "loadtest");
+        Files.createDirectories(dir);
+        log.info(String.format("%.0f req/s target over %d senders, %.0f s measured (after %d s warm-up), mix %s",
+                rate, clients, seconds, warmup.toSeconds(), mixSpec));
+        log.info(String.format("%-28s %8s %8s %9s %9s %9s %9s %9s  %s",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "non-2xx"));
+        Histogram all = new Histogram(MAX_LATENCY_MICROS, 3);
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            Endpoint endpoint = entry.getValue();
+            Histogram h = endpoint.latencies;
+            if (h.getTotalCount() == 0) continue;
+            all.add(h);
+            logRow(endpoint.label, h, seconds, endpoint.errors.toString());
+            try (PrintStream out = new PrintStream(Files.newOutputStream(dir.resolve(entry.getKey() + ".hgrm")))) {
+                h.outputPercentileDistribution(out, 1000.0); // in milliseconds
+            }
+        }
+        logRow("all", all, seconds, "");
+    }
+
+    private static void logRow(String label, Histogram h, double seconds, String errors) {
+        log.info(String.format("%-28s %8d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s",
+                label, h.getTotalCount(), h.getTotalCount() / seconds,
+                h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(90) / 1000.0,
+                h.getValueAtPercentile(99) / 1000.0, h.getValueAtPercentile(99.9) / 1000.0,
+                h.getMaxValue() / 1000.0, errors));
+    }
+
+    private String username(int i) {
+        return "load-" + run + "-" + i;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+
+    private HttpRequest.Builder post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+    }
+
+    private static int random(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    private static StubUpstream startUpstream() {
+        try {
+            return new StubUpstream()
+                    .route("/v1/search", exchange -> {
+                        String name = exchange.getRequestURI().getQuery().replaceAll(".*name=([^&]*).*", "$1");
+                        return new StubUpstream.Reply(200, "{\"results\":[{\"name\":\"" + name
+                                + "\",\"latitude\":28.5,\"longitude\":-81.4}]}");
+                    })
+                    .route("/v1/forecast", 200, "{\"current_weather\":{\"temperature\":27.5,\"weathercode\":1}}");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start the upstream stub", e);
+        }
+    }
+
+    /** One endpoint of the mix: how to build a request, plus its latencies and non-2xx statuses. */
+    private static final class Endpoint {
+        private final String label;
+        private final RequestFactory factory;
+        private final Histogram latencies = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+        private final LongAdder ok = new LongAdder();
+        private final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+
+        Endpoint(String label, RequestFactory factory) {
+            this.label = label;
+            this.factory = factory;
+        }
+
+        HttpRequest request() {
+            return factory.create();
+        }
+
+        void record(long nanos, int status) {
+            latencies.recordValue(Math.min(MAX_LATENCY_MICROS, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            if (status >= 200 && status < 300) ok.increment();
+            else errors.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create();
+    }
+
+    /** Endpoint names with integer weights, parsed from e.g. "list=40,search=20,get=25". */
+    record Mix(String[] names, int[] upperBounds) {
+
+        static Mix parse(String spec, Set<String> known) {
+            List<String> names = new ArrayList<>();
+            List<Integer> bounds = new ArrayList<>();
+            int total = 0;
+            for (String part : spec.split(",")) {
+                String[] kv = part.trim().split("=");
+                if (kv.length != 2 || !known.contains(kv[0].trim())) {
+                    throw new IllegalArgumentException("Bad loadtest.mix entry '" + part + "', expected one of " + known + " =weight");
+                }
+                int weight = Integer.parseInt(kv[1].trim());
+                if (weight <= 0) continue;
+                total += weight;
+                names.add(kv[0].trim());
+                bounds.add(total);
+            }
+            if (total == 0) throw new IllegalArgumentException("loadtest.mix has no positive weights: " + spec);
+            return new Mix(names.toArray(String[]::new), bounds.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        int total() {
+            return upperBounds[upperBounds.length - 1];
+        }
+
+        /** The endpoint for a uniform draw in [0, total). */
+        String pick(int draw) {
+            for (int i = 0; i < upperBounds.length; i++) {
+                if (draw < upperBounds[i]) return names[i];
+            }
+            return names[names.length - 1];
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.cop_3060.repository;
+
+import com.cop_3060.entity.ExternalData;
+import com.cop_3060.service.ExternalDataRetention;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+public class ExternalDataRetentionTest {
+
+    @Autowired
+    private ExternalDataRepository externalDataRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final Instant base = Instant.parse("2025-01-01T00:00:00Z");
+
+    @BeforeEach
+    public void setUp() {
+        // Arrange - 10 snapshots for Orlando, 3 for Miami
+        for (int i = 0; i < 10; i++) {
+            snapshot("Orlando", i);
+        }
+        for (int i = 0; i < 3; i++) {
+            snapshot("Miami", i);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private void snapshot(String city, int minute) {
+        ExternalData data = new ExternalData("open-meteo", city, "{\"minute\":" + minute + "}");
+        data.setFetchedAt(base.plusSeconds(60L * minute));
+        entityManager.persist(data);
+    }
+
+    @Test
+    public void testPruneKeepsNewestSnapshotsPerKey() {
+        // Arrange
+        ExternalDataRetention retention = new ExternalDataRetention(externalDataRepository, 4, 2);
+
+        // Act
+        int deleted = retention.prune();
+
+        // Assert
+        assertEquals(6, deleted);
+        List<ExternalData> remaining = externalDataRepository.findAll();
+        assertEquals(7, remaining.size());
+        assertEquals(4, remaining.stream().filter(d -> d.getKeyName().equals("Orlando")).count());
+        assertTrue(remaining.stream()
+                .filter(d -> d.getKeyName().equals("Orlando"))
+                .allMatch(d -> !d.getFetchedAt().isBefore(base.plusSeconds(60L * 6))));
+        assertEquals("{\"minute\":9}", externalDataRepository
+                .findFirstBySourceAndKeyNameOrderByFetchedAtDesc("open-meteo", "Orlando").orElseThrow().getPayload());
+    }
+
+    @Test
+    public void testLatestLookupIndexExists() {
+        // Act
+        List<String> columns = jdbcTemplate.queryForList(
+                "SELECT LOWER(column_name) FROM information_schema.index_columns " +
+                        "WHERE LOWER(index_name) = 'idx_external_data_source_key_fetched' ORDER BY ordinal_position",
+                String.class);
+
+        // Assert
+        assertEquals(List.of("source", "key_name", "fetched_at"), columns);
+    }
+}
@@ -0,0 +1,135 @@
+package com.cop_3060.repository;
+
+import com.cop_3060.dto.ResourceRow;
+import com.cop_3060.entity.Category;
+import com.cop_3060.entity.Location;
+import com.cop_3060.entity.Resource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ResourceRepositoryTest {
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Category lab;
+
+    @BeforeEach
+    public void setUp() {
+        // Arrange - 3 locations x 2 categories x 5 resources each
+        lab = entityManager.persist(new Category("Lab", "Lab equipment"));
+        Category av = entityManager.persist(new Category("AV", "Audio visual"));
+        for (int i = 0; i < 3; i++) {
+            Location location = entityManager.persist(new Location("Building " + i, "10" + i));
+            for (int j = 0; j < 5; j++) {
+                entityManager.persist(new Resource("Item " + i + "-" + j, "Description " + j, location, j % 2 == 0 ? lab : av));
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testFindAllRowsIsOneQueryPlusCount() {
+        // Arrange
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        // Act
+        Page<ResourceRow> page = resourceRepository.findAllRows(PageRequest.of(0, 10, Sort.by("name")));
+
+        // Assert - one select for the rows, one for the count, no per-row lookups
+        assertEquals(10, page.getContent().size());
+        assertEquals(15, page.getTotalElements());
+        assertEquals("Item 0-0", page.getContent().get(0).name());
+        assertNotNull(page.getContent().get(0).building());
+        assertNotNull(page.getContent().get(0).categoryName());
+        assertEquals(2, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+    }
+
+    @Test
+    public void testFindRowsByCategoryId() {
+        // Act
+        Page<ResourceRow> page = resourceRepository.findRowsByCategoryId(lab.getId(), PageRequest.of(0, 20, Sort.by("name")));
+
+        // Assert
+        assertEquals(9, page.getTotalElements());
+        assertTrue(page.getContent().stream().allMatch(r -> "Lab".equals(r.categoryName())));
+    }
+
+    @Test
+    public void testOffsetPagesWithSharedNamesReturnEveryRowOnce() {
+        // Arrange - more rows named alike than fit on one page
+        Location annex = entityManager.persist(new Location("Annex", "1"));
+        for (int i = 0; i < 7; i++) {
+            entityManager.persist(new Resource("Cable", "Spare cable " + i, annex, lab));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act - page through the lab category 4 rows at a time, as ResourceService.findAll does
+        List<Long> ids = new java.util.ArrayList<>();
+        Page<ResourceRow> page = null;
+        for (int p = 0; page == null || page.hasNext(); p++) {
+            page = resourceRepository.findRowsByCategoryId(lab.getId(), PageRequest.of(p, 4, Sort.by("name", "id")));
+            page.forEach(r -> ids.add(r.id()));
+        }
+
+        // Assert
+        assertEquals(16, ids.size());
+        assertEquals(ids.stream().distinct().count(), ids.size());
+        List<Long> cables = ids.subList(0, 7);
+        assertEquals(cables.stream().sorted().toList(), cables);
+    }
+
+    @Test
+    public void testFindRowsByIdIn() {
+        // Arrange
+        List<Long> ids = resourceRepository.findAll().stream().map(Resource::getId).limit(4).toList();
+
+        // Act
+        List<ResourceRow> rows = resourceRepository.findRowsByIdIn(ids);
+
+        // Assert
+        assertEquals(4, rows.size());
+    }
+
+    @Test
+    public void testKeysetPagesWalkEveryRowOnce() {
+        // Act - walk all rows 4 at a time, seeking after the last (name, id)
+        List<String> names = new java.util.ArrayList<>();
+        Slice<ResourceRow> slice = resourceRepository.findRowsFirst(PageRequest.of(0, 4));
+        slice.forEach(r -> names.add(r.name()));
+        while (slice.hasNext()) {
+            ResourceRow last = slice.getContent().get(slice.getContent().size() - 1);
+            slice = resourceRepository.findRowsAfter(last.name(), last.id(), PageRequest.of(0, 4));
+            slice.forEach(r -> names.add(r.name()));
+        }
+
+        // Assert
+        assertEquals(15, names.size());
+        assertEquals(names.stream().sorted().toList(), names);
+    }
+}
@@ -0,0 +1,58 @@
+package com.cop_3060.security;
+
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtUtilTest {
+
+    private static final String SECRET = "TestJWTSecretThatIsLongEnoughForHmacSha256Signing";
+
+    @Test
+    public void testParseClaimsOnceAndReuse() {
+        // Arrange
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000, 100);
+        String token = jwtUtil.generateToken("alice");
+
+        // Act
+        Optional<Claims> first = jwtUtil.parseClaims(token);
+        Optional<Claims> second = jwtUtil.parseClaims(token);
+
+        // Assert - the second call is answered from the verified-token cache
+        assertEquals("alice", first.orElseThrow().getSubject());
+        assertSame(first.get(), second.orElseThrow());
+        assertTrue(jwtUtil.validateToken(token));
+        assertEquals("alice", jwtUtil.extractUsername(token));
+    }
+
+    @Test
+    public void testRejectsTamperedAndForeignTokens() {
+        // Arrange
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 3_600_000, 100);
+        String token = jwtUtil.generateToken("alice");
+        String foreign = new JwtUtil("SomeOtherSecretThatIsAlsoLongEnoughForHmacSha", 3_600_000, 100).generateToken("alice");
+
+        // Act / Assert
+        assertTrue(jwtUtil.parseClaims(token.substring(0, token.length() - 2) + "xx").isEmpty());
+        assertTrue(jwtUtil.parseClaims(foreign).isEmpty());
+        assertTrue(jwtUtil.parseClaims("not-a-jwt").isEmpty());
+        assertFalse(jwtUtil.validateToken(null));
+    }
+
+    @Test
+    public void testCachedTokenStopsWorkingAtExpiry() throws InterruptedException {
+        // Arrange - exp is stored in whole seconds, so allow for rounding
+        JwtUtil jwtUtil = new JwtUtil(SECRET, 1000, 100);
+        String token = jwtUtil.generateToken("alice");
+        assertTrue(jwtUtil.parseClaims(token).isPresent());
+
+        // Act
+        Thread.sleep(2100);
+
+        // Assert
+        assertTrue(jwtUtil.parseClaims(token).isEmpty());
+    }
+}
@@ -0,0 +1,73 @@
+package com.cop_3060.security;
+
+import com.cop_3060.exception.TooManyAttemptsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginThrottleTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LoginThrottle throttle = new LoginThrottle(registry, 3, 5, Duration.ofMinutes(15));
+
+    @Test
+    public void testUsernameLockedFromOneAddressAfterLimit() {
+        // Arrange - three failed attempts for the same account, spelled differently
+        throttle.begin("alice", "10.0.0.1");
+        throttle.begin("Alice", "10.0.0.1");
+        throttle.begin(" ALICE ", "10.0.0.1");
+
+        // Act
+        TooManyAttemptsException ex = assertThrows(TooManyAttemptsException.class,
+                () -> throttle.begin("alice", "10.0.0.1"));
+
+        // Assert
+        assertTrue(ex.getRetryAfter().toMinutes() >= 14);
+        assertEquals(1.0, registry.get("auth.login.throttled").tag("scope", "username").counter().count());
+        throttle.begin("bob", "10.0.0.1"); // the refused attempt did not use up the IP's budget
+    }
+
+    @Test
+    public void testGuessesFromOneAddressDoNotLockOutTheOwnerElsewhere() {
+        // Arrange - someone uses up the account's attempts from their address
+        for (int i = 0; i < 3; i++) throttle.begin("alice", "203.0.113.7");
+        assertThrows(TooManyAttemptsException.class, () -> throttle.begin("alice", "203.0.113.7"));
+
+        // Act & Assert - the owner signs in from another address; the guesser stays locked out
+        assertDoesNotThrow(() -> throttle.begin("alice", "10.0.0.1"));
+        throttle.succeeded("alice", "10.0.0.1");
+        assertThrows(TooManyAttemptsException.class, () -> throttle.begin("alice", "203.0.113.7"));
+    }
+
+    @Test
+    public void testSuccessfulLoginsDoNotUseUpSharedIp() {
+        // Act - many students behind one address, all with the right password
+        for (int i = 0; i < 20; i++) {
+            throttle.begin("student" + i, "10.0.0.1");
+            throttle.succeeded("student" + i, "10.0.0.1");
+        }
+
+        // Assert - failures still add up for that address
+        for (int i = 0; i < 5; i++) throttle.begin("guess" + i, "10.0.0.1");
+        assertThrows(TooManyAttemptsException.class, () -> throttle.begin("guess5", "10.0.0.1"));
+        assertEquals(1.0, registry.get("auth.login.throttled").tag("scope", "ip").counter().count());
+    }
+
+    @Test
+    public void testAbandonedAttemptIsGivenBack() {
+        // Arrange
+        throttle.begin("carol", "10.0.0.1");
+        throttle.begin("carol", "10.0.0.1");
+        throttle.begin("carol", "10.0.0.1");
+
+        // Act - the last one never got an answer, e.g. the hashing pool was full
+        throttle.abandoned("carol", "10.0.0.1");
+
+        // Assert
+        assertDoesNotThrow(() -> throttle.begin("carol", "10.0.0.1"));
+        assertThrows(TooManyAttemptsException.class, () -> throttle.begin("carol", "10.0.0.1"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.cop_3060.security;
+
+import com.cop_3060.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Test
+    public void testEncodesAndMatchesOnPool() {
+        // Arrange
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), registry, 1, 4);
+
+        // Act
+        String hash = hasher.encode("secret").join();
+
+        // Assert
+        assertTrue(hasher.matches("secret", hash).join());
+        assertFalse(hasher.matches("wrong", hash).join());
+        assertEquals(1, registry.get("auth.hash.duration").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.hash.duration").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void testFullQueueFailsFastWithServiceBusy() throws Exception {
+        // Arrange - one worker stuck on a slow hash, room for one more in the queue
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        hasher = new PasswordHasher(new BlockingEncoder(started, release), registry, 1, 1);
+        CompletableFuture<String> running = hasher.encode("a");
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = hasher.encode("b");
+
+        // Act
+        CompletableFuture<String> refused = hasher.encode("c");
+
+        // Assert
+        assertEquals(1, hasher.queueDepth());
+        assertEquals(1.0, registry.get("auth.hash.queue.depth").gauge().value());
+        CompletionException ex = assertThrows(CompletionException.class, refused::join);
+        assertInstanceOf(ServiceBusyException.class, ex.getCause());
+        assertEquals(1.0, registry.get("auth.hash.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed:a", running.join());
+        assertEquals("hashed:b", queued.join());
+    }
+
+    private record BlockingEncoder(CountDownLatch started, CountDownLatch release) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence raw) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed:" + raw;
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String encoded) {
+            return encoded.equals(encode(raw));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cop_3060.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final CircuitBreaker breaker = new CircuitBreaker(3, Duration.ofSeconds(10), Duration.ofSeconds(30), clock::get);
+
+    @Test
+    public void testOpensAfterThresholdAndLetsOneProbeThrough() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+
+        // Act / Assert - open: calls refused until the open period ends
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        advance(10);
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire(), "only one half-open probe at a time");
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void testFailedProbesBackOffExponentiallyUpToCap() {
+        // Arrange
+        for (int i = 0; i < 3; i++) breaker.onFailure();
+
+        // Act / Assert - 10s, then 20s, then capped at 30s
+        assertEquals(10, breaker.remainingOpen().toSeconds());
+        advance(10);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(20, breaker.remainingOpen().toSeconds());
+        advance(20);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(30, breaker.remainingOpen().toSeconds());
+    }
+
+    @Test
+    public void testRetryAfterAndUnattemptedProbe() {
+        // Act
+        breaker.onRateLimited(CircuitBreaker.parseRetryAfter("25"));
+
+        // Assert - upstream's wait wins over the 10s base
+        assertEquals(25, breaker.remainingOpen().toSeconds());
+        advance(25);
+        assertTrue(breaker.tryAcquire());
+        breaker.onNotAttempted();
+        assertTrue(breaker.tryAcquire(), "a probe that never left must not block the next one");
+        assertEquals(Duration.ZERO, CircuitBreaker.parseRetryAfter("soon"));
+    }
+
+    private void advance(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
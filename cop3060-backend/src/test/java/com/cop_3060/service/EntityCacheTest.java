@@ -0,0 +1,83 @@
+package com.cop_3060.service;
+
+import com.cop_3060.config.CacheConfig;
+import com.cop_3060.dto.CategoryDto;
+import com.cop_3060.dto.CreateCategoryRequest;
+import com.cop_3060.dto.CreateLocationRequest;
+import com.cop_3060.dto.CreateResourceRequest;
+import com.cop_3060.dto.LocationDto;
+import com.cop_3060.dto.ResourceDto;
+import com.cop_3060.dto.UpdateCategoryRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class EntityCacheTest {
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    public void testWarmCacheKeepsReferenceLookupsOffResourceCreate() {
+        // Arrange - create and warm both references
+        CategoryDto category = categoryService.create(new CreateCategoryRequest("Optics", "Optical gear"));
+        LocationDto location = locationService.create(new CreateLocationRequest("Science Hall", "101"));
+        categoryService.findById(category.id());
+        locationService.findById(location.id());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+
+        // Act
+        ResourceDto created = resourceService.create(
+                new CreateResourceRequest("Microscope", "Optical microscope", location.id(), category.id()));
+
+        // Assert - no lookups: only the INSERT and the share-locks on its two references reach the database
+        assertEquals("Optics", created.category().name());
+        assertEquals(3, stats.getPrepareStatementCount());
+        assertTrue(nativeCache(CacheConfig.CATEGORIES).stats().hitCount() >= 1);
+    }
+
+    @Test
+    public void testUpdateRefreshesCachedCategoryAndDropsResources() {
+        // Arrange
+        CategoryDto category = categoryService.create(new CreateCategoryRequest("Audio", "Audio gear"));
+        LocationDto location = locationService.create(new CreateLocationRequest("Music Hall", "2"));
+        ResourceDto resource = resourceService.create(
+                new CreateResourceRequest("Mixer", "Mixing desk", location.id(), category.id()));
+        resourceService.findById(resource.id());
+
+        // Act
+        categoryService.update(category.id(), new UpdateCategoryRequest("Sound", "Sound gear"));
+
+        // Assert
+        assertEquals("Sound", categoryService.findById(category.id()).name());
+        assertNull(nativeCache(CacheConfig.RESOURCES).getIfPresent(resource.id()));
+        assertEquals("Sound", resourceService.findById(resource.id()).category().name());
+    }
+
+    private Cache<Object, Object> nativeCache(String name) {
+        return ((CaffeineCache) cacheManager.getCache(name)).getNativeCache();
+    }
+}
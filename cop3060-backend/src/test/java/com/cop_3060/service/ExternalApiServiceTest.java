@@ -0,0 +1,286 @@
+package com.cop_3060.service;
+
+import com.cop_3060.config.DatabaseExecutor;
+import com.cop_3060.config.ExternalHttpProperties;
+import com.cop_3060.entity.ExternalData;
+import com.cop_3060.repository.ExternalDataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ExternalApiServiceTest {
+
+    private static final String GEO = "{\"results\":[{\"name\":\"Orlando\",\"latitude\":28.5,\"longitude\":-81.4}]}";
+    private static final String FORECAST = "{\"current_weather\":{\"temperature\":31.2,\"weathercode\":0}}";
+
+    @Mock
+    private ExternalDataRepository externalDataRepository;
+
+    private StubUpstream upstream;
+    private ExternalHttpClient http;
+    private final DatabaseExecutor db = new DatabaseExecutor(new SimpleMeterRegistry(), 2, 64);
+    private CircuitBreakers breakers;
+    private ExternalApiService service;
+    private final AtomicLong clock = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        upstream = new StubUpstream()
+                .route("/v1/search", 200, GEO)
+                .route("/v1/forecast", 200, FORECAST);
+        http = new ExternalHttpClient(new ExternalHttpProperties(
+                Duration.ofSeconds(1), Duration.ofSeconds(1), 4, Duration.ofMillis(100), 2, Map.of()));
+        breakers = new CircuitBreakers(new SimpleMeterRegistry(), 2, Duration.ofSeconds(10), Duration.ofMinutes(5), clock::get);
+        service = new ExternalApiService(externalDataRepository, http, breakers, db, "", 10, 60, 100, 100, Duration.ofMinutes(5),
+                upstream.url("/data/2.5/weather"), upstream.url("/v1/search"), upstream.url("/v1/forecast"),
+                clock::get);
+        when(externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc(any(), any()))
+                .thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        http.shutdown();
+        db.shutdown();
+        upstream.close();
+    }
+
+    @Test
+    public void testOpenMeteoFetchThroughStub() {
+        // Act
+        Optional<ExternalData> result = service.fetchWeatherForCity("Orlando");
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("open-meteo", result.get().getSource());
+        assertTrue(result.get().getPayload().contains("\"temp\":31.2"));
+        assertEquals(1, upstream.hits("/v1/search"));
+        assertEquals(1, upstream.hits("/v1/forecast"));
+        verify(externalDataRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    public void testSlowUpstreamGivesUpWithinTimeoutWithoutMockRow() {
+        // Arrange
+        upstream.setLatencyMs(4000);
+
+        // Act
+        long start = System.nanoTime();
+        Optional<ExternalData> result = service.fetchWeatherForCity("Orlando");
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertTrue(elapsedMs < 3000, "gave up after " + elapsedMs + " ms");
+        verify(externalDataRepository, never()).save(any());
+        verify(externalDataRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testOutageServesLastGoodSnapshot() {
+        // Arrange
+        ExternalData lastGood = new ExternalData("open-meteo", "Orlando", "{\"main\":{\"temp\":25.0}}");
+        lastGood.setFetchedAt(Instant.now().minus(Duration.ofHours(3)));
+        when(externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc("open-meteo", "Orlando"))
+                .thenReturn(Optional.of(lastGood));
+        upstream.route("/v1/forecast", 503, "{}");
+
+        // Act
+        Optional<ExternalData> first = service.fetchWeatherForCity("Orlando");
+        Optional<ExternalData> second = service.fetchWeatherForCity("Orlando");
+
+        // Assert - old snapshot served and cached: one upstream try, no new rows
+        assertSame(lastGood, first.orElseThrow());
+        assertSame(lastGood, second.orElseThrow());
+        assertEquals(1, upstream.hits("/v1/forecast"));
+        verify(externalDataRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    public void testOpenCircuitStopsCallingFailingProvider() {
+        // Arrange
+        upstream.route("/v1/forecast", 500, "{}");
+
+        // Act - five different cities, so none is answered from the cache
+        List.of("Orlando", "Miami", "Tampa", "Naples", "Ocala").forEach(service::fetchWeatherForCity);
+
+        // Assert - threshold is 2 failures, then calls stop until the open period is over
+        assertEquals(2, upstream.hits("/v1/forecast"));
+        assertEquals(CircuitBreaker.State.OPEN, breakers.forProvider("open-meteo").state());
+
+        // Act - after the open period one probe goes through and closes the circuit again
+        upstream.route("/v1/forecast", 200, FORECAST);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        Optional<ExternalData> recovered = service.fetchWeatherForCity("Gainesville");
+
+        // Assert
+        assertTrue(recovered.isPresent());
+        assertEquals(3, upstream.hits("/v1/forecast"));
+        assertEquals(CircuitBreaker.State.CLOSED, breakers.forProvider("open-meteo").state());
+    }
+
+    @Test
+    public void testRateLimitHonorsRetryAfter() {
+        // Arrange
+        upstream.route("/v1/forecast", exchange -> new StubUpstream.Reply(429, "{}", Map.of("Retry-After", "120")));
+
+        // Act
+        service.fetchWeatherForCity("Orlando");
+
+        // Assert - one 429 opens the circuit for the upstream's 120s, not our 10s base
+        CircuitBreaker breaker = breakers.forProvider("open-meteo");
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertTrue(breaker.remainingOpen().toSeconds() >= 119);
+    }
+
+    @Test
+    public void testConcurrentMissesShareOneUpstreamCall() {
+        // Arrange
+        upstream.setLatencyMs(150);
+        List<String> spellings = List.of("Orlando", "orlando", " ORLANDO ", "Orlando ");
+
+        // Act
+        List<CompletableFuture<Optional<ExternalData>>> calls = IntStream.range(0, 20)
+                .mapToObj(i -> service.fetchWeatherForCityAsync(spellings.get(i % spellings.size())))
+                .toList();
+        calls.forEach(CompletableFuture::join);
+
+        // Assert
+        assertEquals(1, upstream.hits("/v1/search"));
+        assertEquals(1, upstream.hits("/v1/forecast"));
+        verify(externalDataRepository, times(1)).saveAll(anyList());
+        assertTrue(calls.stream().allMatch(c -> c.join().orElseThrow().getPayload().contains("31.2")));
+    }
+
+    @Test
+    public void testStaleEntryServedWhileRevalidating() throws Exception {
+        // Arrange
+        service.fetchWeatherForCity("Orlando");
+        upstream.route("/v1/forecast", 200, "{\"current_weather\":{\"temperature\":12.0,\"weathercode\":3}}");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(11)); // past the 10 minute TTL, inside the stale window
+
+        // Act
+        Optional<ExternalData> stale = service.fetchWeatherForCity("Orlando");
+        Optional<ExternalData> refreshed = awaitPayloadContaining("Orlando", "12.0");
+
+        // Assert
+        assertTrue(stale.orElseThrow().getPayload().contains("31.2"));
+        assertEquals(2, upstream.hits("/v1/forecast"));
+        assertTrue(refreshed.orElseThrow().getPayload().contains("12.0"));
+    }
+
+    @Test
+    public void testStoredRowIsFreshOnlyForTheRestOfItsTtl() throws Exception {
+        // Arrange - another instance stored this 9 minutes ago; the next lookup finds it too old
+        ExternalData stored = new ExternalData("open-meteo", "Orlando", "{\"main\":{\"temp\":25.0}}");
+        stored.setFetchedAt(Instant.now().minus(Duration.ofMinutes(9)));
+        when(externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc("open-meteo", "Orlando"))
+                .thenReturn(Optional.of(stored), Optional.empty());
+        service.fetchWeatherForCity("Orlando");
+
+        // Act
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(30)); // still inside its TTL
+        Optional<ExternalData> fresh = service.fetchWeatherForCity("Orlando");
+        int hitsWhileFresh = upstream.hits("/v1/forecast");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(90)); // 10.5 minutes since it was fetched
+        Optional<ExternalData> stale = service.fetchWeatherForCity("Orlando");
+        Optional<ExternalData> refreshed = awaitPayloadContaining("Orlando", "31.2");
+
+        // Assert
+        assertSame(stored, fresh.orElseThrow());
+        assertEquals(0, hitsWhileFresh);
+        assertSame(stored, stale.orElseThrow());
+        assertTrue(refreshed.orElseThrow().getPayload().contains("31.2"));
+        assertEquals(1, upstream.hits("/v1/forecast"));
+    }
+
+    @Test
+    public void testBatchFetchesAllCitiesWithOneForecastCall() {
+        // Arrange
+        upstream.route("/v1/search", exchange -> {
+            String name = exchange.getRequestURI().getQuery().replaceAll(".*name=([^&]*).*", "$1");
+            return new StubUpstream.Reply(200, "{\"results\":[{\"name\":\"" + name + "\",\"latitude\":" + name.length() + ",\"longitude\":-81}]}");
+        });
+        upstream.route("/v1/forecast", exchange -> {
+            String lats = exchange.getRequestURI().getQuery().replaceAll(".*latitude=([^&]*).*", "$1");
+            String body = java.util.Arrays.stream(lats.split(","))
+                    .map(lat -> "{\"current_weather\":{\"temperature\":" + lat + ",\"weathercode\":0}}")
+                    .collect(java.util.stream.Collectors.joining(",", "[", "]"));
+            return new StubUpstream.Reply(200, body);
+        });
+
+        // Act
+        Map<String, ExternalData> results = service.fetchWeatherForCitiesAsync(List.of("Orlando", "Miami", "Tampa", "orlando")).join();
+
+        // Assert
+        assertEquals(List.of("Orlando", "Miami", "Tampa", "orlando"), List.copyOf(results.keySet()));
+        assertTrue(results.get("Orlando").getPayload().contains("\"temp\":7.0"));
+        assertTrue(results.get("Miami").getPayload().contains("\"temp\":5.0"));
+        assertTrue(results.get("Tampa").getPayload().contains("\"temp\":5.0"));
+        assertSame(results.get("Orlando"), results.get("orlando"));
+        assertEquals(3, upstream.hits("/v1/search"));
+        assertEquals(1, upstream.hits("/v1/forecast"));
+    }
+
+    @Test
+    public void testGeocodingIsNotRepeatedAfterWeatherExpires() {
+        // Arrange
+        service.fetchWeatherForCity("Orlando");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(120)); // past TTL and stale window
+
+        // Act
+        Optional<ExternalData> again = service.fetchWeatherForCity("Orlando");
+
+        // Assert
+        assertTrue(again.isPresent());
+        assertEquals(1, upstream.hits("/v1/search"));
+        assertEquals(2, upstream.hits("/v1/forecast"));
+    }
+
+    @Test
+    public void testUnknownCityIsRememberedForTheNegativeTtl() {
+        // Arrange
+        upstream.route("/v1/search", 200, "{\"results\":[]}");
+        service.fetchWeatherForCity("Atlantis");
+
+        // Act
+        Optional<ExternalData> again = service.fetchWeatherForCity("Atlantis");
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(6)); // past the 5 minute negative TTL
+        service.fetchWeatherForCity("Atlantis");
+
+        // Assert
+        assertTrue(again.isEmpty());
+        assertEquals(2, upstream.hits("/v1/search"));
+        assertEquals(0, upstream.hits("/v1/forecast"));
+    }
+
+    private Optional<ExternalData> awaitPayloadContaining(String city, String text) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        Optional<ExternalData> current = service.fetchWeatherForCity(city);
+        while (!current.orElseThrow().getPayload().contains(text) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            current = service.fetchWeatherForCity(city);
+        }
+        return current;
+    }
+}
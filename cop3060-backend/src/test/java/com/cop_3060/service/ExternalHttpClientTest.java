@@ -0,0 +1,111 @@
+package com.cop_3060.service;
+
+import com.cop_3060.config.ExternalHttpProperties;
+import com.cop_3060.exception.UpstreamUnavailableException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExternalHttpClientTest {
+
+    private StubUpstream upstream;
+    private ExternalHttpClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        upstream = new StubUpstream().route("/ping", 200, "{\"ok\":true}");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (client != null) client.shutdown();
+        upstream.close();
+    }
+
+    private ExternalHttpClient client(Duration readTimeout, int maxConcurrent, Duration acquireTimeout) {
+        ExternalHttpProperties props = new ExternalHttpProperties(
+                Duration.ofSeconds(1), readTimeout, maxConcurrent, acquireTimeout, 2, Map.of());
+        return new ExternalHttpClient(props);
+    }
+
+    @Test
+    public void testConnectionIsReusedAcrossRequests() throws Exception {
+        // Arrange
+        client = client(Duration.ofSeconds(2), 4, Duration.ofMillis(100));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            HttpResponse<String> resp = client.get(URI.create(upstream.url("/ping")));
+            assertEquals(200, resp.statusCode());
+        }
+
+        // Assert
+        assertEquals(5, upstream.hits("/ping"));
+        assertEquals(1, upstream.clientPorts().size(), "keep-alive should reuse one connection");
+    }
+
+    @Test
+    public void testSlowUpstreamHitsReadTimeout() {
+        // Arrange
+        client = client(Duration.ofMillis(200), 4, Duration.ofMillis(100));
+        upstream.setLatencyMs(2000);
+
+        // Act
+        long start = System.nanoTime();
+        Exception ex = assertThrows(Exception.class, () -> client.get(URI.create(upstream.url("/ping"))));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert
+        assertInstanceOf(HttpTimeoutException.class, ex);
+        assertTrue(elapsedMs < 1500, "timed out after " + elapsedMs + " ms");
+    }
+
+    @Test
+    public void testPerHostConcurrencyLimitFailsFast() {
+        // Arrange
+        client = client(Duration.ofSeconds(5), 2, Duration.ofMillis(50));
+        upstream.setLatencyMs(500);
+        URI uri = URI.create(upstream.url("/ping"));
+
+        // Act
+        List<CompletableFuture<HttpResponse<String>>> calls = List.of(
+                client.getAsync(uri), client.getAsync(uri), client.getAsync(uri));
+
+        // Assert
+        CompletionException rejected = assertThrows(CompletionException.class, () -> calls.get(2).join());
+        assertInstanceOf(UpstreamUnavailableException.class, rejected.getCause());
+        assertEquals(200, calls.get(0).join().statusCode());
+        assertEquals(200, calls.get(1).join().statusCode());
+        assertEquals(2, client.availableSlots("127.0.0.1"));
+    }
+
+    @Test
+    public void testQueuedCallsGetFreedSlotsWithoutBlockingTheCaller() {
+        // Arrange
+        client = client(Duration.ofSeconds(5), 1, Duration.ofSeconds(5));
+        upstream.setLatencyMs(200);
+        URI uri = URI.create(upstream.url("/ping"));
+
+        // Act
+        long start = System.nanoTime();
+        List<CompletableFuture<HttpResponse<String>>> calls = List.of(
+                client.getAsync(uri), client.getAsync(uri), client.getAsync(uri));
+        long submitMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Assert - all three queued at once, then ran one after another on the single slot
+        assertTrue(submitMs < 150, "getAsync blocked for " + submitMs + " ms");
+        calls.forEach(call -> assertEquals(200, call.join().statusCode()));
+        assertEquals(1, client.availableSlots("127.0.0.1"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.cop_3060.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PostingListTest {
+
+    @Test
+    public void testWritesMatchASortedSetAcrossMerges() {
+        // Arrange
+        Random random = new Random(42);
+        TreeSet<Long> expected = new TreeSet<>();
+        PostingList list = PostingList.EMPTY;
+
+        // Act - enough writes to overflow the deltas and merge them many times
+        for (int round = 0; round < 2000; round++) {
+            long[] ids = random.longs(1 + random.nextInt(20), 1, 5000).sorted().distinct().toArray();
+            if (random.nextInt(3) == 0) {
+                list = list.withoutAll(ids);
+                for (long id : ids) {
+                    expected.remove(id);
+                }
+            } else {
+                list = list.withAll(ids);
+                for (long id : ids) {
+                    expected.add(id);
+                }
+            }
+
+            // Assert
+            assertEquals(expected.size(), list.size());
+        }
+        assertEquals(new ArrayList<>(expected), drain(list.cursor()));
+    }
+
+    @Test
+    public void testCursorSeeksForwardPastRemovedIds() {
+        // Arrange
+        PostingList list = PostingList.of(new long[]{2, 4, 6, 8, 10}).withoutAll(new long[]{4, 6}).withAll(new long[]{5});
+        PostingList.Cursor cursor = list.cursor();
+
+        // Act & Assert
+        assertEquals(2, cursor.seek(0));
+        assertEquals(5, cursor.seek(3));
+        assertEquals(8, cursor.seek(6));
+        assertEquals(10, cursor.seek(10));
+        assertEquals(PostingList.END, cursor.seek(11));
+    }
+
+    @Test
+    public void testUnionMergesEachIdOnce() {
+        // Arrange
+        PostingList a = PostingList.of(new long[]{1, 3, 5});
+        PostingList b = PostingList.of(new long[]{3, 4});
+        PostingList c = PostingList.of(new long[]{9});
+
+        // Act
+        List<Long> ids = drain(PostingList.union(List.of(a.cursor(), b.cursor(), c.cursor())));
+
+        // Assert
+        assertEquals(List.of(1L, 3L, 4L, 5L, 9L), ids);
+    }
+
+    private static List<Long> drain(PostingList.Cursor cursor) {
+        List<Long> ids = new ArrayList<>();
+        for (long id = cursor.seek(0); id != PostingList.END; id = cursor.seek(id + 1)) {
+            ids.add(id);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,151 @@
+package com.cop_3060.service;
+
+import com.cop_3060.dto.CategoryDto;
+import com.cop_3060.dto.CreateCategoryRequest;
+import com.cop_3060.dto.CreateLocationRequest;
+import com.cop_3060.dto.CreateResourceRequest;
+import com.cop_3060.dto.LocationDto;
+import com.cop_3060.exception.ConflictException;
+import com.cop_3060.exception.InvalidReferenceException;
+import com.cop_3060.repository.ResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Category/location deletes racing resource writes: the reference check and the write are
+ * separate statements, so the foreign keys decide, and the loser gets a 409 or 400, never a 500.
+ */
+@SpringBootTest
+public class ReferenceIntegrityTest {
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ResourceRepository resourceRepository;
+
+    private CategoryDto category;
+    private LocationDto location;
+
+    @BeforeEach
+    public void setUp() {
+        category = categoryService.create(new CreateCategoryRequest("Lab", "Lab equipment"));
+        location = locationService.create(new CreateLocationRequest("Science Hall", "101"));
+    }
+
+    @Test
+    public void testResourceCreatedAfterCountBlocksCategoryDelete() {
+        // Arrange - a resource lands between the reference count and the delete
+        doAnswer(invocation -> {
+            insertResource(location.id(), category.id());
+            return 0;
+        }).when(resourceRepository).countByCategoryId(category.id());
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> categoryService.delete(category.id()));
+        assertTrue(categoryService.exists(category.id()));
+    }
+
+    @Test
+    public void testResourceCreatedAfterCountBlocksLocationDelete() {
+        // Arrange
+        doAnswer(invocation -> {
+            insertResource(location.id(), category.id());
+            return 0;
+        }).when(resourceRepository).countByLocationId(location.id());
+
+        // Act & Assert
+        assertThrows(ConflictException.class, () -> locationService.delete(location.id()));
+        assertTrue(locationService.exists(location.id()));
+    }
+
+    @Test
+    public void testCategoryDeletedAfterLookupIsInvalidReference() {
+        // Arrange - the category is resolved (and cached), then removed behind the cache's back
+        categoryService.findById(category.id());
+        jdbcTemplate.update("DELETE FROM categories WHERE id = ?", category.id());
+
+        // Act & Assert
+        assertThrows(InvalidReferenceException.class, () -> resourceService.create(
+                new CreateResourceRequest("Microscope", "Optical microscope", location.id(), category.id())));
+        assertEquals(0, count("SELECT COUNT(*) FROM resources WHERE category_id = ?", category.id()));
+    }
+
+    @Test
+    public void testConcurrentDeleteAndCreatesLeaveNoOrphans() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // Arrange
+                CategoryDto target = categoryService.create(new CreateCategoryRequest("Round " + round, "Racing"));
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<?>> outcomes = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    CreateResourceRequest req = new CreateResourceRequest("Item " + i, "Racing item", location.id(), target.id());
+                    outcomes.add(pool.submit(() -> {
+                        start.await();
+                        return resourceService.create(req);
+                    }));
+                }
+                outcomes.add(pool.submit(() -> {
+                    start.await();
+                    categoryService.delete(target.id());
+                    return null;
+                }));
+
+                // Act
+                start.countDown();
+
+                // Assert - every call either succeeded or lost the race cleanly
+                for (Future<?> outcome : outcomes) {
+                    try {
+                        outcome.get(10, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                        Throwable cause = e.getCause();
+                        assertTrue(cause instanceof ConflictException || cause instanceof InvalidReferenceException,
+                                () -> "unexpected " + cause);
+                    }
+                }
+                int resources = count("SELECT COUNT(*) FROM resources WHERE category_id = ?", target.id());
+                int categories = count("SELECT COUNT(*) FROM categories WHERE id = ?", target.id());
+                assertTrue(categories == 1 || resources == 0, "resources left pointing at a deleted category");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void insertResource(Long locationId, Long categoryId) {
+        jdbcTemplate.update("INSERT INTO resources (name, description, location_id, category_id) VALUES (?, ?, ?, ?)",
+                "Late", "Created during the delete", locationId, categoryId);
+    }
+
+    private int count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, id);
+    }
+}
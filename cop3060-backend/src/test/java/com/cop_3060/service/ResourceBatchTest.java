@@ -0,0 +1,130 @@
+package com.cop_3060.service;
+
+import com.cop_3060.dto.BatchItemResult;
+import com.cop_3060.dto.BatchUpdateResourceRequest;
+import com.cop_3060.dto.CategoryDto;
+import com.cop_3060.dto.CreateCategoryRequest;
+import com.cop_3060.dto.CreateLocationRequest;
+import com.cop_3060.dto.CreateResourceRequest;
+import com.cop_3060.dto.LocationDto;
+import com.cop_3060.exception.NotFoundException;
+import com.cop_3060.exception.PayloadTooLargeException;
+import com.cop_3060.repository.ResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+public class ResourceBatchTest {
+
+    @Autowired
+    private ResourceService resourceService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private LocationService locationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @SpyBean
+    private ResourceRepository resourceRepository;
+
+    private CategoryDto category;
+    private LocationDto location;
+
+    @BeforeEach
+    public void setUp() {
+        category = categoryService.create(new CreateCategoryRequest("Lab", "Lab equipment"));
+        location = locationService.create(new CreateLocationRequest("Science Hall", "101"));
+    }
+
+    @Test
+    public void testCreateAllReportsEachItem() {
+        // Arrange
+        List<CreateResourceRequest> requests = Arrays.asList(
+                new CreateResourceRequest("Microscope", "Optical microscope", location.id(), category.id()),
+                new CreateResourceRequest("", "Missing name", location.id(), category.id()),
+                new CreateResourceRequest("Beaker", "Glass beaker", 9999L, category.id()),
+                new CreateResourceRequest("Pipette", "Glass pipette", location.id(), category.id())
+        );
+
+        // Act
+        List<BatchItemResult> results = resourceService.createAll(requests);
+
+        // Assert
+        assertEquals(List.of(201, 400, 400, 201), results.stream().map(BatchItemResult::status).toList());
+        assertEquals("name: Name is required", results.get(1).error());
+        assertEquals("Invalid locationId: 9999", results.get(2).error());
+        assertEquals("Pipette", resourceService.findById(results.get(3).id()).name());
+        assertEquals("Science Hall", results.get(0).resource().location().building());
+    }
+
+    @Test
+    public void testUpdateAllAndDeleteAll() {
+        // Arrange
+        List<BatchItemResult> created = resourceService.createAll(List.of(
+                new CreateResourceRequest("Camera", "Digital camera", location.id(), category.id()),
+                new CreateResourceRequest("Tripod", "Camera tripod", location.id(), category.id())));
+        Long cameraId = created.get(0).id();
+        Long tripodId = created.get(1).id();
+        resourceService.findById(cameraId); // warm the cache so the update must refresh it
+
+        // Act
+        List<BatchItemResult> updated = resourceService.updateAll(List.of(
+                new BatchUpdateResourceRequest(cameraId, "Video Camera", "4K camera", location.id(), category.id()),
+                new BatchUpdateResourceRequest(424242L, "Ghost", "Does not exist", location.id(), category.id())));
+        List<BatchItemResult> deleted = resourceService.deleteAll(Arrays.asList(tripodId, 424242L));
+
+        // Assert
+        assertEquals(List.of(200, 404), updated.stream().map(BatchItemResult::status).toList());
+        assertEquals("Video Camera", resourceService.findById(cameraId).name());
+        assertEquals(List.of(204, 404), deleted.stream().map(BatchItemResult::status).toList());
+        assertThrows(NotFoundException.class, () -> resourceService.findById(tripodId));
+    }
+
+    @Test
+    public void testRowDeletedAfterExistenceCheckIsNotFound() {
+        // Arrange - delete each row right after the service has checked that it exists
+        List<BatchItemResult> created = resourceService.createAll(List.of(
+                new CreateResourceRequest("Laptop", "Loaner laptop", location.id(), category.id()),
+                new CreateResourceRequest("Monitor", "External monitor", location.id(), category.id())));
+        doAnswer(inv -> {
+            List<Long> existing = new ArrayList<>(inv.<Collection<Long>>getArgument(0));
+            existing.forEach(id -> jdbcTemplate.update("DELETE FROM resources WHERE id = ?", id));
+            return existing;
+        }).when(resourceRepository).findExistingIds(anyCollection());
+
+        // Act
+        List<BatchItemResult> updated = resourceService.updateAll(List.of(new BatchUpdateResourceRequest(
+                created.get(0).id(), "Gaming Laptop", "Loaner laptop", location.id(), category.id())));
+        List<BatchItemResult> deleted = resourceService.deleteAll(List.of(created.get(1).id()));
+
+        // Assert
+        assertEquals(404, updated.get(0).status());
+        assertEquals(404, deleted.get(0).status());
+    }
+
+    @Test
+    public void testRejectsOversizedBatch() {
+        List<Long> ids = new ArrayList<>();
+        for (long i = 0; i <= ResourceService.MAX_BATCH_ITEMS; i++) {
+            ids.add(i);
+        }
+        assertThrows(PayloadTooLargeException.class, () -> resourceService.deleteAll(ids));
+    }
+}
@@ -0,0 +1,165 @@
+package com.cop_3060.service;
+
+import com.cop_3060.dto.ResourceSearchRow;
+import com.cop_3060.repository.ResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ResourceSearchIndexTest {
+
+    @Mock
+    private ResourceRepository resourceRepository;
+
+    private ResourceSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        // Arrange - load three rows through the normal rebuild path
+        when(resourceRepository.findSearchRowsAfter(eq(0L), any(Pageable.class))).thenReturn(Arrays.asList(
+                new ResourceSearchRow(1L, "Microscope", "Optical microscope for lab use"),
+                new ResourceSearchRow(2L, "Projector", "Digital projector for lecture halls"),
+                new ResourceSearchRow(3L, "Lab Coat", "Protective coat, microscope lab")
+        ));
+        index = new ResourceSearchIndex(resourceRepository);
+        index.rebuild();
+    }
+
+    @Test
+    public void testSearchRanksNameMatchesFirst() {
+        // Act
+        ResourceSearchIndex.Hits hits = index.search("micro", 0, 10);
+
+        // Assert - name hit (1) before description-only hit (3)
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1L, 3L), hits.ids());
+    }
+
+    @Test
+    public void testSearchRequiresEveryWord() {
+        // Act
+        ResourceSearchIndex.Hits hits = index.search("lab coat", 0, 10);
+
+        // Assert
+        assertEquals(List.of(3L), hits.ids());
+    }
+
+    @Test
+    public void testSearchPagesResults() {
+        // Act
+        ResourceSearchIndex.Hits hits = index.search("lab", 1, 1);
+
+        // Assert - "Lab Coat" (name hit) is page 0, "Microscope" is page 1
+        assertEquals(2, hits.total());
+        assertEquals(List.of(1L), hits.ids());
+    }
+
+    @Test
+    public void testPutAndRemoveKeepIndexCurrent() {
+        // Act
+        index.put(2L, "Camera", "Digital camera");
+        index.remove(1L);
+
+        // Assert
+        assertTrue(index.search("projector", 0, 10).ids().isEmpty());
+        assertEquals(List.of(2L), index.search("camera", 0, 10).ids());
+        assertEquals(List.of(3L), index.search("microscope", 0, 10).ids());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testSearchMatchesWordPrefixesOnly() {
+        // Act & Assert - "scope" is inside "microscope" but does not start a word
+        assertTrue(index.search("scope", 0, 10).ids().isEmpty());
+        assertEquals(List.of(2L, 3L), index.search("p", 0, 10).ids());
+    }
+
+    @Test
+    public void testSearchBeforeReadyScansTableWithSameResults() {
+        // Arrange - a fresh index that has not been loaded yet
+        ResourceSearchIndex cold = new ResourceSearchIndex(resourceRepository);
+
+        // Act & Assert
+        assertFalse(cold.isReady());
+        for (String query : List.of("micro", "lab coat", "scope", "p", "lab")) {
+            assertEquals(index.search(query, 0, 10), cold.search(query, 0, 10), query);
+        }
+        assertEquals(index.search("lab", 1, 1), cold.search("lab", 1, 1));
+    }
+
+    @Test
+    public void testShortPrefixesFollowWrites() {
+        // Act
+        index.put(4L, "Pipette", "Glass pipette");
+        index.remove(2L);
+
+        // Assert - "p" is served from the one-letter prefix postings
+        assertEquals(List.of(4L, 3L), index.search("p", 0, 10).ids());
+        assertEquals(List.of(4L), index.search("pi", 0, 10).ids());
+    }
+
+    @Test
+    public void testWritesDuringRebuildAreKept() {
+        // Arrange - the table still returns resource 2, which is deleted while the rebuild runs
+        when(resourceRepository.findSearchRowsAfter(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            List<ResourceSearchRow> rows = List.of(
+                    new ResourceSearchRow(1L, "Microscope", "Optical microscope for lab use"),
+                    new ResourceSearchRow(2L, "Projector", "Digital projector for lecture halls"));
+            index.remove(2L);
+            index.put(4L, "Projector Screen", "Pull-down screen");
+            // the current index keeps serving, and already sees both writes
+            assertEquals(List.of(4L), index.search("projector", 0, 10).ids());
+            return rows;
+        });
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertEquals(List.of(4L), index.search("projector", 0, 10).ids());
+        assertEquals(1, index.search("projector", 0, 10).total());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    public void testOneLetterQueryOnLargeTableIsExact() {
+        // Arrange - 20,000 rows, half of them with a word starting with "a"
+        List<ResourceSearchRow> rows = new java.util.ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            rows.add(new ResourceSearchRow(id, (id % 2 == 0 ? "Amplifier " : "Tuner ") + id, "Unit " + id));
+        }
+        index.putAll(rows);
+        for (long id = 2; id <= 20_000; id += 4) {
+            index.remove(id);
+        }
+
+        // Act
+        ResourceSearchIndex.Hits hits = index.search("a", 0, 3);
+
+        // Assert - amplifiers 4, 8, 12, ... survive, ordered by name as text
+        assertEquals(5_000, hits.total());
+        assertEquals(List.of(100L, 1_000L, 10_000L), hits.ids());
+    }
+
+    @Test
+    public void testSearchPastLastPageKeepsTotal() {
+        // Act
+        ResourceSearchIndex.Hits hits = index.search("lab", 5, 1);
+
+        // Assert
+        assertEquals(2, hits.total());
+        assertTrue(hits.ids().isEmpty());
+    }
+}
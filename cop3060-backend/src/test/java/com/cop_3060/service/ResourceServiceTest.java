@@ -1,10 +1,16 @@
 package com.cop_3060.service;
 
+import com.cop_3060.dto.CategoryDto;
 import com.cop_3060.dto.CreateResourceRequest;
+import com.cop_3060.dto.LocationDto;
 import com.cop_3060.dto.ResourceDto;
+import com.cop_3060.dto.ResourceRow;
 import com.cop_3060.entity.Resource;
 import com.cop_3060.entity.Category;
 import com.cop_3060.entity.Location;
+import com.cop_3060.exception.InvalidCursorException;
+import com.cop_3060.exception.InvalidReferenceException;
+import com.cop_3060.exception.NotFoundException;
 import com.cop_3060.repository.CategoryRepository;
 import com.cop_3060.repository.LocationRepository;
 import com.cop_3060.repository.ResourceRepository;
@@ -16,13 +22,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +47,18 @@ public class ResourceServiceTest {
     @Mock
     private LocationRepository locationRepository;
 
+    @Mock
+    private CategoryService categoryService;
+
+    @Mock
+    private LocationService locationService;
+
+    @Mock
+    private ResourceSearchIndex searchIndex;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private ResourceService resourceService;
 
@@ -56,8 +78,12 @@ public class ResourceServiceTest {
         Location location = new Location("Science Hall", "101");
         location.setId(1L);
 
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(category));
-        when(locationRepository.findById(1L)).thenReturn(Optional.of(location));
+        when(categoryService.findById(1L)).thenReturn(new CategoryDto(1L, "Electronics", "Electronic"));
+        when(locationService.findById(1L)).thenReturn(new LocationDto(1L, "Science Hall", "101"));
+        when(categoryRepository.getReferenceById(1L)).thenReturn(category);
+        when(locationRepository.getReferenceById(1L)).thenReturn(location);
+        when(categoryRepository.lockAllById(Set.of(1L))).thenReturn(List.of(category));
+        when(locationRepository.lockAllById(Set.of(1L))).thenReturn(List.of(location));
 
         Resource resource = new Resource("Microscope", "Optical microscope for lab use", location, category);
         resource.setId(1L);
@@ -70,26 +96,34 @@ public class ResourceServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals("Microscope", result.name());
+        assertEquals("Science Hall", result.location().building());
         verify(resourceRepository, times(1)).save(any(Resource.class));
+        verify(categoryRepository, never()).findById(any());
+        verify(locationRepository, never()).findById(any());
     }
 
     @Test
-    public void testGetAllResources() {
+    public void testCreateResourceWithUnknownCategory() {
         // Arrange
-        Location location = new Location("Science Hall", "101");
-        location.setId(1L);
-        
-        Category category = new Category("Equipment", "Lab");
-        category.setId(1L);
+        CreateResourceRequest req = new CreateResourceRequest("Microscope", "Optical microscope", 1L, 99L);
+        when(locationService.findById(1L)).thenReturn(new LocationDto(1L, "Science Hall", "101"));
+        when(categoryService.findById(99L)).thenThrow(new NotFoundException("Category 99 not found"));
 
-        Resource res1 = new Resource("Microscope", "Optical microscope", location, category);
-        res1.setId(1L);
+        // Act & Assert
+        assertThrows(InvalidReferenceException.class, () -> resourceService.create(req));
+        verify(resourceRepository, never()).save(any(Resource.class));
+    }
 
-        Resource res2 = new Resource("Projector", "Digital projector", location, category);
-        res2.setId(2L);
+    @Test
+    public void testGetAllResources() {
+        // Arrange
+        ResourceRow res1 = new ResourceRow(1L, "Microscope", "Optical microscope",
+                1L, "Science Hall", "101", 1L, "Equipment", "Lab");
+        ResourceRow res2 = new ResourceRow(2L, "Projector", "Digital projector",
+                1L, "Science Hall", "101", 1L, "Equipment", "Lab");
 
-        Page<Resource> page = new PageImpl<>(Arrays.asList(res1, res2), PageRequest.of(0, 10), 2);
-        when(resourceRepository.findAll(any(org.springframework.data.domain.Pageable.class))).thenReturn(page);
+        Page<ResourceRow> page = new PageImpl<>(Arrays.asList(res1, res2), PageRequest.of(0, 10), 2);
+        when(resourceRepository.findAllRows(any(org.springframework.data.domain.Pageable.class))).thenReturn(page);
 
         // Act
         Map<String, Object> result = resourceService.findAll(0, 10, "name", null, null);
@@ -98,7 +132,11 @@ public class ResourceServiceTest {
         assertNotNull(result);
         assertEquals(2, ((java.util.List<?>) result.get("content")).size());
         assertEquals(0, result.get("page"));
-        verify(resourceRepository, times(1)).findAll(any(org.springframework.data.domain.Pageable.class));
+        ResourceDto first = (ResourceDto) ((java.util.List<?>) result.get("content")).get(0);
+        assertEquals("Science Hall", first.location().building());
+        assertEquals("Equipment", first.category().name());
+        verify(resourceRepository, times(1)).findAllRows(any(org.springframework.data.domain.Pageable.class));
+        verify(resourceRepository, never()).findAll(any(org.springframework.data.domain.Pageable.class));
     }
 
     @Test
@@ -113,4 +151,30 @@ public class ResourceServiceTest {
         verify(resourceRepository, times(1)).existsById(1L);
         verify(resourceRepository, times(1)).deleteById(1L);
     }
+
+    @Test
+    public void testKeysetPageReturnsNextCursor() {
+        // Arrange
+        ResourceRow row = new ResourceRow(7L, "Projector", "Digital projector",
+                1L, "Science Hall", "101", 1L, "Equipment", "Lab");
+        when(resourceRepository.findRowsFirst(any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(row), PageRequest.of(0, 1), true));
+        when(resourceRepository.findRowsAfter(eq("Projector"), eq(7L), any(org.springframework.data.domain.Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 1), false));
+
+        // Act
+        Map<String, Object> first = resourceService.findAllKeyset("", 1, null);
+        Map<String, Object> second = resourceService.findAllKeyset((String) first.get("nextCursor"), 1, null);
+
+        // Assert
+        assertEquals(true, first.get("hasNext"));
+        assertFalse(first.containsKey("totalElements"));
+        assertEquals(false, second.get("hasNext"));
+        assertNull(second.get("nextCursor"));
+    }
+
+    @Test
+    public void testKeysetRejectsInvalidCursor() {
+        assertThrows(InvalidCursorException.class, () -> resourceService.findAllKeyset("not-a-cursor", 10, null));
+    }
 }
@@ -0,0 +1,152 @@
+package com.cop_3060.service;
+
+import com.cop_3060.config.DatabaseExecutor;
+import com.cop_3060.config.ExternalHttpProperties;
+import com.cop_3060.entity.ExternalData;
+import com.cop_3060.repository.ExternalDataRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class WeatherRefreshSchedulerTest {
+
+    @Mock
+    private ExternalDataRepository externalDataRepository;
+
+    private StubUpstream upstream;
+    private ExternalHttpClient http;
+    private final DatabaseExecutor db = new DatabaseExecutor(new SimpleMeterRegistry(), 2, 64);
+    private ExternalApiService service;
+    private WeatherRefreshScheduler scheduler;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        upstream = new StubUpstream()
+                .route("/v1/search", 200, "{\"results\":[{\"name\":\"Orlando\",\"latitude\":28.5,\"longitude\":-81.4}]}")
+                .route("/v1/forecast", 200, "{\"current_weather\":{\"temperature\":31.2,\"weathercode\":0}}");
+        http = new ExternalHttpClient(new ExternalHttpProperties(
+                Duration.ofSeconds(1), Duration.ofSeconds(1), 4, Duration.ofMillis(100), 2, Map.of()));
+        service = new ExternalApiService(externalDataRepository, http,
+                new CircuitBreakers(new SimpleMeterRegistry(), 5, Duration.ofSeconds(10), Duration.ofMinutes(5)), db, "", 10, 60, 100, 100, Duration.ofMinutes(5),
+                upstream.url("/data/2.5/weather"), upstream.url("/v1/search"), upstream.url("/v1/forecast"),
+                clock::get);
+        when(externalDataRepository.findFirstBySourceAndKeyNameOrderByFetchedAtDesc(any(), any()))
+                .thenReturn(Optional.empty());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (scheduler != null) scheduler.shutdown();
+        http.shutdown();
+        db.shutdown();
+        upstream.close();
+    }
+
+    private WeatherRefreshScheduler scheduler(int maxPerMinute) {
+        return new WeatherRefreshScheduler(service, meterRegistry, true, 10, 3, Duration.ofMinutes(1), Duration.ZERO,
+                Duration.ofMinutes(5), 2, maxPerMinute);
+    }
+
+    private void awaitForecastHits(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (upstream.hits("/v1/forecast") < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testHotKeyRefreshedBeforeTtl() throws Exception {
+        // Arrange
+        scheduler = scheduler(60);
+        for (int i = 0; i < 5; i++) service.fetchWeatherForCity("Orlando");
+        upstream.route("/v1/forecast", 200, "{\"current_weather\":{\"temperature\":12.0,\"weathercode\":3}}");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(570)); // 9.5 of 10 minutes: inside the refresh lead
+
+        // Act
+        scheduler.tick();
+        awaitForecastHits(2);
+        Thread.sleep(50);
+        Optional<ExternalData> served = service.fetchWeatherForCity("Orlando");
+
+        // Assert
+        assertEquals(2, upstream.hits("/v1/forecast"));
+        assertTrue(served.orElseThrow().getPayload().contains("12.0"));
+        assertTrue(service.cacheAge(new ExternalApiService.WeatherKey("open-meteo", "Orlando")).orElseThrow()
+                .compareTo(Duration.ofMinutes(1)) < 0);
+    }
+
+    @Test
+    public void testColdOrFreshKeysAreLeftAlone() throws Exception {
+        // Arrange
+        scheduler = scheduler(60);
+        service.fetchWeatherForCity("Orlando"); // one request: not hot
+
+        // Act
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(570));
+        scheduler.tick();
+        Thread.sleep(200);
+
+        // Assert
+        assertEquals(1, upstream.hits("/v1/forecast"));
+    }
+
+    @Test
+    public void testRateBudgetCapsRefreshes() throws Exception {
+        // Arrange
+        scheduler = scheduler(1);
+        for (int i = 0; i < 3; i++) {
+            service.fetchWeatherForCity("Orlando");
+            service.fetchWeatherForCity("Miami");
+        }
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(570));
+
+        // Act
+        scheduler.tick();
+        awaitForecastHits(3);
+        Thread.sleep(300);
+
+        // Assert - two initial loads plus a single budgeted refresh
+        assertEquals(3, upstream.hits("/v1/forecast"));
+    }
+
+    @Test
+    public void testFailedRefreshIsCounted() throws Exception {
+        // Arrange
+        for (int i = 0; i < 5; i++) service.fetchWeatherForCity("Orlando");
+        ExternalApiService failing = spy(service);
+        doReturn(CompletableFuture.failedFuture(new IllegalStateException("refresh failed")))
+                .when(failing).refresh(any());
+        scheduler = new WeatherRefreshScheduler(failing, meterRegistry, true, 10, 3, Duration.ofMinutes(1), Duration.ZERO,
+                Duration.ofMinutes(5), 2, 60);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(570));
+
+        // Act
+        scheduler.tick();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.counter("weather.refresh.failures").count() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // Assert
+        assertEquals(1.0, meterRegistry.counter("weather.refresh.failures").count());
+        assertEquals(1, upstream.hits("/v1/forecast"));
+    }
+}
@@ -0,0 +1,64 @@
+package com.cop_3060.bench;
+
+import com.cop_3060.security.JwtAuthenticationFilter;
+import com.cop_3060.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and validation. {@code validateRepeated} re-sends one token, as a browser does
+ * on every request; {@code validateFresh} validates a token nobody has sent before;
+ * {@code filterRepeated} is the whole bearer-token filter, mock request included, for a seen token.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private JwtAuthenticationFilter filter;
+    private String token;
+    private long counter;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("BenchmarkJWTSecretThatIsLongEnoughForHmacSha256", 3_600_000, 10_000);
+        filter = new JwtAuthenticationFilter(jwtUtil);
+        token = jwtUtil.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken("bench-user");
+    }
+
+    @Benchmark
+    public Optional<Claims> validateRepeated() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> validateFresh() {
+        return jwtUtil.parseClaims(jwtUtil.generateToken("bench-user-" + counter++));
+    }
+
+    @Benchmark
+    public Object filterRepeated() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/resources");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,51 @@
+package com.cop_3060.bench;
+
+import com.cop_3060.util.PagingUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The legacy in-memory {@link PagingUtil#pageAndSort} (repository root {@code util/}) sorting
+ * by name then capacity descending, for the first page and one deep page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PagingUtilBenchmark {
+
+    public record Item(String name, int capacity) {}
+
+    private static final List<String> SORT = List.of("name", "-capacity");
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private List<Item> items;
+
+    @Setup
+    public void setUp() {
+        items = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            // scattered, repeatable order with duplicate names
+            int key = (int) ((i * 2_654_435_761L) % rows);
+            items.add(new Item(SeededBackend.WORDS[key % SeededBackend.WORDS.length] + " " + key / 4, key % 97));
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> firstPage() {
+        return PagingUtil.pageAndSort(items, 0, 20, SORT);
+    }
+
+    @Benchmark
+    public Map<String, Object> deepPage() {
+        return PagingUtil.pageAndSort(items, rows / 20 / 2, 20, SORT);
+    }
+}
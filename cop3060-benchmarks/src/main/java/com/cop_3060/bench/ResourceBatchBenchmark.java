@@ -0,0 +1,58 @@
+package com.cop_3060.bench;
+
+import com.cop_3060.dto.BatchItemResult;
+import com.cop_3060.dto.CreateResourceRequest;
+import com.cop_3060.dto.ResourceDto;
+import com.cop_3060.service.ResourceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time per created resource through {@link ResourceService#create}, one row per call, and
+ * through {@link ResourceService#createAll} with full batches of
+ * {@value ResourceService#MAX_BATCH_ITEMS}. Both report per row, so the scores compare directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ResourceBatchBenchmark {
+
+    private SeededBackend backend;
+    private ResourceService resourceService;
+    private List<CreateResourceRequest> batch;
+    private CreateResourceRequest single;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = SeededBackend.start(1000);
+        resourceService = backend.bean(ResourceService.class);
+        batch = new ArrayList<>(ResourceService.MAX_BATCH_ITEMS);
+        for (int i = 0; i < ResourceService.MAX_BATCH_ITEMS; i++) {
+            batch.add(new CreateResourceRequest("Item " + i, "Benchmark item " + i,
+                    1L + i % SeededBackend.LOCATIONS, 1L + i % SeededBackend.CATEGORIES));
+        }
+        single = batch.get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public ResourceDto createOne() {
+        return resourceService.create(single);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ResourceService.MAX_BATCH_ITEMS)
+    public List<BatchItemResult> createBatch() {
+        return resourceService.createAll(batch);
+    }
+}
@@ -0,0 +1,41 @@
+package com.cop_3060.bench;
+
+import com.cop_3060.dto.ResourceDto;
+import com.cop_3060.dto.ResourceRow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Row-to-DTO mapping of one page, the per-request work {@code findAll} does after the query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceMappingBenchmark {
+
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private List<ResourceRow> page;
+
+    @Setup
+    public void setUp() {
+        page = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            page.add(new ResourceRow(i, "Projector " + i, "Projector for lab and classroom use, unit " + i,
+                    i % 200, "Building A", "Room " + i, i % 50, "Category " + i % 50, "Equipment group"));
+        }
+    }
+
+    @Benchmark
+    public List<ResourceDto> toDto() {
+        return page.stream().map(ResourceRow::toDto).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,59 @@
+package com.cop_3060.bench;
+
+import com.cop_3060.service.ResourceService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ResourceService#findAll} for the first page of 20, unfiltered, by category and by
+ * text query, against seeded catalogs of 1k, 100k and 1M resources. Each call includes the
+ * page query, the count query and DTO mapping. {@link #findAllByOneLetter} is the worst case
+ * for the search index: "l" prefixes "lab" in every seeded description, so every row matches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class ResourceQueryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private SeededBackend backend;
+    private ResourceService resourceService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        backend = SeededBackend.start(rows);
+        resourceService = backend.bean(ResourceService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        backend.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> findAllPlain() {
+        return resourceService.findAll(0, 20, "name", null, null);
+    }
+
+    @Benchmark
+    public Map<String, Object> findAllByCategory() {
+        return resourceService.findAll(0, 20, "name", "7", null);
+    }
+
+    @Benchmark
+    public Map<String, Object> findAllByQuery() {
+        return resourceService.findAll(0, 20, "name", null, "microscope");
+    }
+
+    @Benchmark
+    public Map<String, Object> findAllByOneLetter() {
+        return resourceService.findAll(0, 20, "name", null, "l");
+    }
+}
@@ -0,0 +1,95 @@
+package com.cop_3060.bench;
+
+import com.cop_3060.Application;
+import com.cop_3060.service.ResourceSearchIndex;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The backend's Spring context on a private in-memory H2 database (MySQL mode), seeded with
+ * a fixed, repeatable catalog: {@value #LOCATIONS} locations, {@value #CATEGORIES} categories
+ * and the requested number of resources spread evenly across both.
+ */
+final class SeededBackend implements AutoCloseable {
+
+    static final int LOCATIONS = 200;
+    static final int CATEGORIES = 50;
+
+    /** Every resource name starts with one of these, so each word matches rows / WORDS.length resources. */
+    static final String[] WORDS = {
+            "Projector", "Microscope", "Laptop", "Whiteboard", "Camera", "Tripod", "Oscilloscope", "Printer",
+            "Monitor", "Speaker", "Tablet", "Router", "Scanner", "Headset", "Telescope", "Calculator"
+    };
+
+    private static final int INSERT_BATCH = 10_000;
+
+    private final ConfigurableApplicationContext context;
+
+    private SeededBackend(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    static SeededBackend start(int resources) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .logStartupInfo(false)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:bench_" + resources + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.hikari.minimum-idle=2",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.cop_3060=WARN",
+                        "--logging.level.org.springframework.security=ERROR",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--external.refresh.enabled=false");
+        SeededBackend backend = new SeededBackend(context);
+        backend.seed(resources);
+        return backend;
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(int resources) {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        List<Object[]> args = new ArrayList<>();
+        for (int i = 1; i <= LOCATIONS; i++) {
+            args.add(new Object[]{i, "Building " + (char) ('A' + i % 26), "Room " + (100 + i)});
+        }
+        jdbc.batchUpdate("INSERT INTO locations (id, building, room) VALUES (?, ?, ?)", args);
+
+        args.clear();
+        for (int i = 1; i <= CATEGORIES; i++) {
+            args.add(new Object[]{i, "Category " + i, "Equipment group " + i});
+        }
+        jdbc.batchUpdate("INSERT INTO categories (id, name, description) VALUES (?, ?, ?)", args);
+
+        args.clear();
+        for (int i = 1; i <= resources; i++) {
+            String word = WORDS[i % WORDS.length];
+            args.add(new Object[]{i, word + " " + i, word + " for lab and classroom use, unit " + i,
+                    1 + i % LOCATIONS, 1 + i % CATEGORIES});
+            if (args.size() == INSERT_BATCH || i == resources) {
+                jdbc.batchUpdate("INSERT INTO resources (id, name, description, location_id, category_id) VALUES (?, ?, ?, ?, ?)", args);
+                args.clear();
+            }
+        }
+        jdbc.execute("ALTER TABLE resources ALTER COLUMN id RESTART WITH " + (resources + 1));
+
+        // The index loaded an empty table at startup
+        bean(ResourceSearchIndex.class).rebuild();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -1,16 +1,39 @@
 package com.cop_3060.util;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Utility class to apply paging and sorting to in-memory collections.
  */
 public class PagingUtil {
 
+    /**
+     * Compiled comparators, keyed by item class and sort spec. The spec comes from the
+     * request, so only specs naming existing properties are kept, and at most
+     * {@link #MAX_CACHED_COMPARATORS} of them; anything else is compiled per call.
+     */
+    private static final Map<SortSpec, Comparator<Object>> COMPARATORS = new ConcurrentHashMap<>();
+    private static final int MAX_CACHED_COMPARATORS = 256;
+
+    /** Accessor used when a sort field has no readable property; every item compares equal. */
+    private static final Function<Object, Object> MISSING = obj -> null;
+
+    private record SortSpec(Class<?> type, List<String> fields) {}
+
+    /** Item plus its input position, so the heap path keeps the stable order of a full sort. */
+    private record Ranked<T>(T item, int index) {}
+
     /**
      * Apply paging and sorting to a list.
+     * The input list is not modified.
      *
      * @param items List of items to page
      * @param page  Zero-based page index
@@ -22,34 +45,16 @@ public class PagingUtil {
     public static <T> Map<String, Object> pageAndSort(
             List<T> items, int page, int size, List<String> sort) {
 
-        // Apply sorting
-        if (sort != null && !sort.isEmpty()) {
-            Comparator<T> comparator = null;
-
-            for (String field : sort) {
-                boolean descending = field.startsWith("-");
-                String fieldName = descending ? field.substring(1) : field;
-
-                Comparator<T> fieldComparator = Comparator.comparing(
-                        t -> getFieldValue(t, fieldName),
-                        Comparator.nullsLast(Comparator.naturalOrder())
-                );
-
-                if (descending) fieldComparator = fieldComparator.reversed();
-
-                comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
-            }
-
-            if (comparator != null) {
-                items.sort(comparator);
-            }
-        }
-
-        // Apply paging
         int totalElements = items.size();
-        int fromIndex = Math.min(page * size, totalElements);
+        int fromIndex = (int) Math.min((long) page * size, totalElements);
         int toIndex = Math.min(fromIndex + size, totalElements);
-        List<T> content = items.subList(fromIndex, toIndex);
+
+        List<T> content;
+        if (sort == null || sort.isEmpty() || fromIndex >= toIndex) {
+            content = new ArrayList<>(items.subList(fromIndex, toIndex));
+        } else {
+            content = sortedPage(items, comparatorFor(items, sort), fromIndex, toIndex);
+        }
 
         // Build envelope
         Map<String, Object> envelope = new LinkedHashMap<>();
@@ -63,20 +68,168 @@ public class PagingUtil {
     }
 
     /**
-     * Use reflection to get a property value from a POJO.
-     *
-     * @param obj       Object to read
-     * @param fieldName Field name
-     * @return Value of the field, or null if not found
+     * Return items [fromIndex, toIndex) of the sorted order.
+     * When the page is near the front, keep only the best {@code toIndex} items in a bounded
+     * heap (O(n log k)) instead of copying and sorting the whole list (O(n log n)).
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<T> sortedPage(List<T> items, Comparator<Object> comparator, int fromIndex, int toIndex) {
+        int n = items.size();
+        if ((long) toIndex * 4 >= n) {
+            List<T> copy = new ArrayList<>(items);
+            copy.sort((Comparator<? super T>) comparator);
+            return new ArrayList<>(copy.subList(fromIndex, toIndex));
+        }
+
+        Comparator<Ranked<T>> ranked = Comparator.<Ranked<T>, Object>comparing(Ranked::item, comparator)
+                .thenComparingInt(Ranked::index);
+        PriorityQueue<Ranked<T>> heap = new PriorityQueue<>(toIndex, ranked.reversed());
+        int index = 0;
+        for (T item : items) {
+            Ranked<T> candidate = new Ranked<>(item, index++);
+            if (heap.size() < toIndex) {
+                heap.add(candidate);
+            } else if (ranked.compare(candidate, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        List<Ranked<T>> top = new ArrayList<>(heap);
+        top.sort(ranked);
+        List<T> content = new ArrayList<>(toIndex - fromIndex);
+        for (Ranked<T> r : top.subList(fromIndex, toIndex)) {
+            content.add(r.item());
+        }
+        return content;
+    }
+
+    /**
+     * Comparator for a sort spec over these items. When every item has the same class, the
+     * compiled comparator for that class is used (and cached); a list mixing subtypes resolves
+     * each property per item class instead, since a getter compiled for one class cannot be
+     * applied to a sibling.
+     */
+    private static Comparator<Object> comparatorFor(List<?> items, List<String> sort) {
+        Class<?> type = items.get(0).getClass();
+        for (Object item : items) {
+            if (item.getClass() != type) {
+                return compile(sort, PagingUtil::perClassAccessor);
+            }
+        }
+
+        SortSpec spec = new SortSpec(type, List.copyOf(sort));
+        Comparator<Object> cached = COMPARATORS.get(spec);
+        if (cached != null) {
+            return cached;
+        }
+        Comparator<Object> compiled = compile(spec.fields(), fieldName -> accessorFor(type, fieldName));
+        if (COMPARATORS.size() < MAX_CACHED_COMPARATORS && spec.fields().stream().allMatch(field -> hasProperty(type, field))) {
+            COMPARATORS.putIfAbsent(spec, compiled);
+        }
+        return compiled;
+    }
+
+    private static Comparator<Object> compile(List<String> fields, Function<String, Function<Object, Object>> accessors) {
+        Comparator<Object> comparator = null;
+
+        for (String field : fields) {
+            boolean descending = field.startsWith("-");
+            String fieldName = descending ? field.substring(1) : field;
+
+            Function<Object, Object> accessor = accessors.apply(fieldName);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            Comparator<Object> fieldComparator = Comparator.comparing(
+                    accessor,
+                    (Comparator) Comparator.nullsLast(Comparator.naturalOrder())
+            );
+
+            if (descending) fieldComparator = fieldComparator.reversed();
+
+            comparator = comparator == null ? fieldComparator : comparator.thenComparing(fieldComparator);
+        }
+
+        return comparator;
+    }
+
+    /** Accessor resolving the property on each item's own class (once per class). */
+    private static Function<Object, Object> perClassAccessor(String fieldName) {
+        Map<Class<?>, Function<Object, Object>> byClass = new ConcurrentHashMap<>();
+        return obj -> obj == null ? null
+                : byClass.computeIfAbsent(obj.getClass(), type -> accessorFor(type, fieldName)).apply(obj);
+    }
+
+    private static boolean hasProperty(Class<?> type, String field) {
+        String fieldName = field.startsWith("-") ? field.substring(1) : field;
+        if (fieldName.isEmpty()) {
+            return false;
+        }
+        String capitalized = fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+        return findGetter(type, "get" + capitalized, "is" + capitalized, fieldName) != null;
+    }
+
+    /**
+     * Resolve a property once: JavaBean getter ({@code getName}/{@code isActive}) or record
+     * accessor ({@code name()}), compiled to a {@link Function} via LambdaMetafactory.
+     * Falls back to a plain MethodHandle, and to a null-returning accessor when the
+     * property does not exist (matching the old reflective behaviour).
      */
-    private static Object getFieldValue(Object obj, String fieldName) {
+    private static Function<Object, Object> accessorFor(Class<?> type, String fieldName) {
+        if (fieldName.isEmpty()) {
+            return MISSING;
+        }
+        String capitalized = fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
+        Method method = findGetter(type, "get" + capitalized, "is" + capitalized, fieldName);
+        if (method == null) {
+            return MISSING;
+        }
+
         try {
-            // Convert first letter to uppercase for getter
-            String methodName = "get" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
-            Method method = obj.getClass().getMethod(methodName);
-            return method.invoke(obj);
-        } catch (Exception e) {
-            return null;
+            Class<?> owner = method.getDeclaringClass();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(owner, MethodHandles.lookup());
+            MethodHandle getter = lookup.unreflect(method);
+            try {
+                return lambdaFor(lookup, getter, owner);
+            } catch (Throwable e) {
+                MethodHandle generic = getter.asType(MethodType.methodType(Object.class, Object.class));
+                return obj -> {
+                    try {
+                        return generic.invokeExact(obj);
+                    } catch (Throwable t) {
+                        return null;
+                    }
+                };
+            }
+        } catch (IllegalAccessException e) {
+            return MISSING;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> lambdaFor(MethodHandles.Lookup lookup, MethodHandle getter, Class<?> owner)
+            throws Throwable {
+        Class<?> returnType = MethodType.methodType(getter.type().returnType()).wrap().returnType();
+        CallSite site = LambdaMetafactory.metafactory(
+                lookup,
+                "apply",
+                MethodType.methodType(Function.class),
+                MethodType.methodType(Object.class, Object.class),
+                getter,
+                MethodType.methodType(returnType, owner));
+        return (Function<Object, Object>) site.getTarget().invokeExact();
+    }
+
+    private static Method findGetter(Class<?> type, String... names) {
+        for (String name : names) {
+            try {
+                Method method = type.getMethod(name);
+                if (method.getParameterCount() == 0 && method.getReturnType() != void.class) {
+                    return method;
+                }
+            } catch (NoSuchMethodException ignored) {
+                // try the next naming convention
+            }
         }
+        return null;
     }
 }